@@ -24,6 +24,7 @@ import org.apache.tamaya.spi.ConfigurationProviderSpi;
 import org.apache.tamaya.spi.ServiceContextManager;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
@@ -300,6 +301,62 @@ public interface Configuration {
         return defaultValue;
     }
 
+    /**
+     * Access a property as {@code int}. Implementations may optimize this method, e.g. by caching the parsed
+     * value, so it can be used on hot paths without boxing.
+     *
+     * @param key the property's key, not {@code null}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}.
+     * @throws ConfigException if the value could not be converted to an {@code int}.
+     */
+    default int getInt(String key, int defaultValue){
+        Integer value = getOrDefault(key, TypeLiteral.of(Integer.class), null);
+        return value==null?defaultValue:value;
+    }
+
+    /**
+     * Access a property as {@code long}. Implementations may optimize this method, e.g. by caching the parsed
+     * value, so it can be used on hot paths without boxing.
+     *
+     * @param key the property's key, not {@code null}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}.
+     * @throws ConfigException if the value could not be converted to a {@code long}.
+     */
+    default long getLong(String key, long defaultValue){
+        Long value = getOrDefault(key, TypeLiteral.of(Long.class), null);
+        return value==null?defaultValue:value;
+    }
+
+    /**
+     * Access a property as {@code double}. Implementations may optimize this method, e.g. by caching the parsed
+     * value, so it can be used on hot paths without boxing.
+     *
+     * @param key the property's key, not {@code null}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}.
+     * @throws ConfigException if the value could not be converted to a {@code double}.
+     */
+    default double getDouble(String key, double defaultValue){
+        Double value = getOrDefault(key, TypeLiteral.of(Double.class), null);
+        return value==null?defaultValue:value;
+    }
+
+    /**
+     * Access a property as {@code boolean}. Implementations may optimize this method, e.g. by caching the parsed
+     * value, so it can be used on hot paths without boxing.
+     *
+     * @param key the property's key, not {@code null}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}.
+     * @throws ConfigException if the value could not be converted to a {@code boolean}.
+     */
+    default boolean getBoolean(String key, boolean defaultValue){
+        Boolean value = getOrDefault(key, TypeLiteral.of(Boolean.class), null);
+        return value==null?defaultValue:value;
+    }
+
     /**
      * Access all currently known configuration properties as a full {@code Map<String,String>}.
      * Be aware that entries from non scannable parts of the registered {@link org.apache.tamaya.spi.PropertySource}
@@ -309,6 +366,36 @@ public interface Configuration {
      */
     Map<String,String> getProperties();
 
+    /**
+     * Access all currently known configuration properties, whose keys start with the given prefix, e.g.
+     * {@code displays.} for accessing a configuration section. The same restrictions as for
+     * {@link #getProperties()} apply. Implementations may optimize this method, e.g. by using a sorted key index.
+     * @param prefix the key prefix, not {@code null}. The empty prefix selects all properties.
+     * @return the matching configuration properties, never {@code null}.
+     */
+    default Map<String,String> getProperties(String prefix){
+        Objects.requireNonNull(prefix);
+        Map<String,String> result = new HashMap<>();
+        for(Map.Entry<String,String> en:getProperties().entrySet()){
+            if(en.getKey().startsWith(prefix)){
+                result.put(en.getKey(), en.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes all currently known configuration properties to the given consumer, the same properties as returned by
+     * {@link #getProperties()}. Implementations may evaluate and pass the entries one by one without materializing
+     * the full property map, so this method should be preferred for exporting or searching large configurations.
+     * No order of the entries is guaranteed.
+     * @param consumer the consumer, called with key and value of each property, not {@code null}.
+     */
+    default void forEach(BiConsumer<String,String> consumer){
+        Objects.requireNonNull(consumer);
+        getProperties().forEach(consumer);
+    }
+
     /**
      * Extension point for adjusting configuration.
      *
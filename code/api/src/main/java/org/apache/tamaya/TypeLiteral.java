@@ -42,8 +42,20 @@ public class TypeLiteral<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private static final Type[] EMPTY_TYPE_ARRAY = new Type[0];
+    /**
+     * The shared literals for plain classes, as returned by {@link #of(Type)}. The literals are stored with the
+     * classes themselves, so they do not keep the class loaders of redeployed classes reachable.
+     */
+    private static final ClassValue<TypeLiteral<?>> CLASS_LITERALS = new ClassValue<TypeLiteral<?>>() {
+        @Override
+        protected TypeLiteral<?> computeValue(Class<?> type) {
+            return new TypeLiteral<>(type);
+        }
+    };
     /** The current defined type. */
     private final Type definedType;
+    /** The cached hash code, evaluated lazily. */
+    private transient int hash;
 
     /**
      * Constructor.
@@ -63,15 +75,20 @@ public class TypeLiteral<T> implements Serializable {
     }
 
     /**
-     * Creates a new TypeLiteral based on a given type.
+     * Creates a new TypeLiteral based on a given type. For plain classes a shared, canonical instance
+     * is returned.
      *
      * @param type the type, not {@code null}.
      * @param <R>  the literal generic type.
      * @return the corresponding TypeLiteral, never {@code null}.
      */
+    @SuppressWarnings("unchecked")
     public static <R> TypeLiteral<R> of(Type type) {
         Objects.requireNonNull(type, "Type must be given.");
 
+        if(type instanceof Class){
+            return (TypeLiteral<R>) CLASS_LITERALS.get((Class<?>)type);
+        }
         return new TypeLiteral<>(type);
     }
 
@@ -173,9 +190,13 @@ public class TypeLiteral<T> implements Serializable {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((definedType == null) ? 0 : definedType.hashCode());
+        int result = hash;
+        if(result == 0) {
+            final int prime = 31;
+            result = 1;
+            result = prime * result + ((definedType == null) ? 0 : definedType.hashCode());
+            hash = result;
+        }
         return result;
     }
 
@@ -27,6 +27,8 @@ import java.util.*;
 /**
  * A conversion context containing all the required values for implementing conversion. Use the included #Builder
  * for creating new instances of. This class is thread-safe to use. Adding supported formats is synchronized.
+ * Supported formats are only recorded when added and formatted lazily, when {@link #getSupportedFormats()} is
+ * called, typically only when a conversion has failed.
  * @see PropertyConverter
  */
 public class ConversionContext {
@@ -37,7 +39,14 @@ public class ConversionContext {
     private final List<PropertyValue> values;
     private final TypeLiteral<?> targetType;
     private final AnnotatedElement annotatedElement;
-    private final Set<String> supportedFormats = new LinkedHashSet<>();
+    /** The formats passed by the builder, already formatted. */
+    private final Collection<String> builderFormats;
+    /** The converter type of the first formats added, or {@code null}. */
+    private Class<?> formatsConverterType;
+    /** The first formats added, or {@code null}. */
+    private String[] formats;
+    /** Further formats added, as pairs of converter type and formats, created lazily. */
+    private List<Object[]> moreFormats;
 
     /**
      * Private constructor used from builder.
@@ -47,11 +56,11 @@ public class ConversionContext {
         this.key = builder.key;
         this.annotatedElement = builder.annotatedElement;
         this.targetType = builder.targetType;
-        this.supportedFormats.addAll(builder.supportedFormats);
+        this.builderFormats = builder.supportedFormats==null?
+                Collections.emptySet():new ArrayList<>(builder.supportedFormats);
         this.configuration = builder.configuration;
-        List<PropertyValue> tempValues = new ArrayList<>();
-        tempValues.addAll(builder.values);
-        this.values = Collections.unmodifiableList(tempValues);
+        this.values = Collections.unmodifiableList(builder.values);
+        builder.valuesShared = true;
     }
 
     /**
@@ -118,15 +127,23 @@ public class ConversionContext {
     /**
      * Allows to add information on the supported/tried formats, which can be shown to the user, especially when
      * conversion failed. Adding of formats is synchronized, all formats are added in order to the overall createList.
-     * This means formats should be passed in order of precedence.
+     * This means formats should be passed in order of precedence. The descriptors are only formatted, when
+     * {@link #getSupportedFormats()} is called, so the array passed must not be modified afterwards. Converters
+     * therefore can pass a constant array, which makes this call allocation free in most cases.
      * @param converterType the converters, which implements the formats provided.
      * @param formatDescriptors the format descriptions in a human readable form, e.g. as regular expressions.
      */
-    public void addSupportedFormats(@SuppressWarnings("rawtypes") Class<?> converterType, String... formatDescriptors){
-        synchronized (supportedFormats){
-            for(String format: formatDescriptors) {
-                supportedFormats.add(format + " (" + converterType.getSimpleName() + ")");
+    public synchronized void addSupportedFormats(@SuppressWarnings("rawtypes") Class<?> converterType,
+                                                 String... formatDescriptors){
+        Objects.requireNonNull(converterType);
+        if(formats==null){
+            formatsConverterType = converterType;
+            formats = formatDescriptors;
+        }else{
+            if(moreFormats==null){
+                moreFormats = new ArrayList<>();
             }
+            moreFormats.add(new Object[]{converterType, formatDescriptors});
         }
     }
 
@@ -135,9 +152,22 @@ public class ConversionContext {
      * {@link PropertyConverter} instances involved in a conversion.
      * @return the supported/tried formats, never {@code null}.
      */
-    public List<String> getSupportedFormats(){
-        synchronized (supportedFormats){
-            return new ArrayList<>(supportedFormats);
+    public synchronized List<String> getSupportedFormats(){
+        Set<String> supportedFormats = new LinkedHashSet<>(builderFormats);
+        if(formats!=null){
+            addFormats(supportedFormats, formatsConverterType, formats);
+        }
+        if(moreFormats!=null){
+            for(Object[] entry:moreFormats){
+                addFormats(supportedFormats, (Class<?>)entry[0], (String[])entry[1]);
+            }
+        }
+        return new ArrayList<>(supportedFormats);
+    }
+
+    private static void addFormats(Collection<String> target, Class<?> converterType, String... formatDescriptors){
+        for(String format: formatDescriptors) {
+            target.add(format + " (" + converterType.getSimpleName() + ")");
         }
     }
 
@@ -148,7 +178,7 @@ public class ConversionContext {
                 ", key='" + key + '\'' +
                 ", targetType=" + targetType +
                 ", annotatedElement=" + annotatedElement +
-                ", supportedFormats=" + supportedFormats +
+                ", supportedFormats=" + getSupportedFormats() +
                 '}';
     }
 
@@ -176,13 +206,15 @@ public class ConversionContext {
         /** The corresponding property values, as delivered from the corresponding property sources,
          * in order of significance (highest last).
          */
-        private final List<PropertyValue> values = new ArrayList<>();
+        private List<PropertyValue> values = Collections.emptyList();
+        /** Flag set, when the values are shared with a context built, so they must be copied before changed. */
+        private boolean valuesShared = true;
         /** The target type. */
         private TypeLiteral<?> targetType;
         /** The injection target (only setCurrent with injection used). */
         private AnnotatedElement annotatedElement;
-        /** The ordered setCurrent of formats tried. */
-        private final Set<String> supportedFormats = new LinkedHashSet<>();
+        /** The ordered setCurrent of formats tried, created lazily. */
+        private Set<String> supportedFormats;
 
         /**
          * Creates a new Builder instance.
@@ -229,7 +261,7 @@ public class ConversionContext {
          * @return the builder instance, for chaining
          */
         public Builder setValues(List<PropertyValue> values){
-            this.values.addAll(values);
+            writableValues().addAll(values);
             return this;
         }
 
@@ -239,10 +271,18 @@ public class ConversionContext {
          * @return the builder instance, for chaining
          */
         public Builder setValues(PropertyValue... values){
-            this.values.addAll(Arrays.asList(values));
+            writableValues().addAll(Arrays.asList(values));
             return this;
         }
 
+        private List<PropertyValue> writableValues(){
+            if(valuesShared){
+                this.values = new ArrayList<>(this.values);
+                this.valuesShared = false;
+            }
+            return this.values;
+        }
+
         /**
          * Sets the configuration.
          * @param configuration the configuration, not {@code null}
@@ -282,9 +322,10 @@ public class ConversionContext {
          * @return the builder instance, for chaining
          */
         public Builder addSupportedFormats(@SuppressWarnings("rawtypes") Class<?> converterType, String... formatDescriptors){
-            for(String format: formatDescriptors) {
-                supportedFormats.add(format + " (" + converterType.getSimpleName() + ")");
+            if(supportedFormats==null){
+                supportedFormats = new LinkedHashSet<>();
             }
+            addFormats(supportedFormats, converterType, formatDescriptors);
             return this;
         }
 
@@ -303,7 +344,7 @@ public class ConversionContext {
                     ", key='" + key + '\'' +
                     ", targetType=" + targetType +
                     ", annotatedElement=" + annotatedElement +
-                    ", supportedFormats=" + supportedFormats +
+                    ", supportedFormats=" + (supportedFormats==null?"[]":supportedFormats) +
                     '}';
         }
 
@@ -33,7 +33,7 @@ public class FilterContext {
     /** The current configurationContext. */
     private final ConfigurationContext configurationContext;
     @Experimental
-    private Map<String, PropertyValue> configEntries = new HashMap<>();
+    private final Map<String, PropertyValue> configEntries;
     @Experimental
     private boolean singlePropertyScoped;
 
@@ -48,15 +48,56 @@ public class FilterContext {
      * @param configurationContext the current configurationContext, not {@code null}.
      */
     public FilterContext(PropertyValue value, Map<String,PropertyValue> configEntries, ConfigurationContext configurationContext) {
+        this(value, Collections.unmodifiableMap(new HashMap<>(
+                Objects.requireNonNull(configEntries, "Initial configuration entries must be not null."))),
+                configurationContext, false);
+    }
+
+    /**
+     * Private constructor used for sharing the configuration entries.
+     * @param value the createValue under evaluation, not {@code null}.
+     * @param configEntries the read-only configuration entries, used as is, not {@code null}.
+     * @param configurationContext the current configurationContext, not {@code null}.
+     * @param singlePropertyScoped the scope flag.
+     */
+    private FilterContext(PropertyValue value, Map<String,PropertyValue> configEntries,
+                          ConfigurationContext configurationContext, boolean singlePropertyScoped) {
         Objects.requireNonNull(value, "Value must not be null.");
         Objects.requireNonNull(configEntries, "Initial configuration entries must be not null.");
         Objects.requireNonNull(configurationContext, "Context must be not null.");
 
-        this.singlePropertyScoped = false;
-        this.values = Collections.singletonList(Objects.requireNonNull(value));
-        this.configurationContext = Objects.requireNonNull(configurationContext);
-        this.configEntries.putAll(configEntries);
-        this.configEntries = Collections.unmodifiableMap(this.configEntries);
+        this.singlePropertyScoped = singlePropertyScoped;
+        this.values = Collections.singletonList(value);
+        this.configurationContext = configurationContext;
+        this.configEntries = configEntries;
+    }
+
+    /**
+     * Creates a new FilterContext, for filtering of a multi createValue access
+     * using {@link Configuration#getProperties()}. Other than
+     * {@link #FilterContext(PropertyValue, Map, ConfigurationContext)} the configuration entries are not copied,
+     * so the same entries can be shared by all values filtered in one evaluation pass. Use
+     * {@link #createConfigEntries(Map)} to create the shared entries.
+     *
+     * @param value the createValue under evaluation, not {@code null}.
+     * @param sharedConfigEntries the read-only raw configuration data available in the
+     *                      current evaluation configurationContext, not {@code null}.
+     * @param configurationContext the current configurationContext, not {@code null}.
+     * @return the new filter context, never {@code null}.
+     */
+    public static FilterContext ofSharedConfigEntries(PropertyValue value, Map<String,PropertyValue> sharedConfigEntries,
+                                                      ConfigurationContext configurationContext) {
+        return new FilterContext(value, sharedConfigEntries, configurationContext, false);
+    }
+
+    /**
+     * Creates a read-only copy of the given configuration entries, which can be shared by multiple
+     * filter contexts using {@link #ofSharedConfigEntries(PropertyValue, Map, ConfigurationContext)}.
+     * @param configEntries the raw configuration data, not {@code null}.
+     * @return the read-only configuration entries, never {@code null}.
+     */
+    public static Map<String,PropertyValue> createConfigEntries(Map<String,PropertyValue> configEntries) {
+        return Collections.unmodifiableMap(new HashMap<>(configEntries));
     }
 
     /**
@@ -72,7 +113,7 @@ public class FilterContext {
         this.singlePropertyScoped = true;
         this.configurationContext = Objects.requireNonNull(configurationContext);
         this.values = Collections.singletonList(Objects.requireNonNull(value));
-        this.configEntries = Collections.unmodifiableMap(this.configEntries);
+        this.configEntries = Collections.emptyMap();
     }
 
     /**
@@ -88,7 +129,7 @@ public class FilterContext {
         this.singlePropertyScoped = true;
         this.configurationContext = Objects.requireNonNull(configurationContext);
         this.values = Collections.unmodifiableList(new ArrayList<>(values));
-        this.configEntries = Collections.unmodifiableMap(this.configEntries);
+        this.configEntries = Collections.emptyMap();
     }
 
     /**
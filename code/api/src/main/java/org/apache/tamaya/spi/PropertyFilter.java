@@ -18,6 +18,7 @@
  */
 package org.apache.tamaya.spi;
 
+import java.util.Collection;
 
 /**
  * <p>Interface for filtering the current map of properties during the evaluation of the chain of PropertySources.
@@ -48,4 +49,15 @@ public interface PropertyFilter{
      */
     PropertyValue filterProperty(PropertyValue value, FilterContext context);
 
+    /**
+     * Optionally declares the key prefixes this filter applies to. If prefixes are declared, implementations may
+     * skip this filter for all keys not starting with one of the prefixes. An exact key can be declared as prefix
+     * as well, in which case the filter may still be called for other keys starting with it.
+     * By default no prefixes are declared, so the filter is applied to all keys.
+     * @return the key prefixes, or {@code null} or an empty collection, if the filter applies to all keys.
+     */
+    default Collection<String> getKeyPrefixes(){
+        return null;
+    }
+
 }
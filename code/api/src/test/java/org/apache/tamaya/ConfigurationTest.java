@@ -28,6 +28,8 @@ import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
@@ -176,6 +178,32 @@ public class ConfigurationTest {
         assertThat("aStringValue").isEqualTo(Configuration.current().get("String"));
     }
 
+    @Test
+    public void testget_Primitives() throws Exception {
+        assertThat(Configuration.current().getInt("int", 1)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(Configuration.current().getInt("foo", 1)).isEqualTo(1);
+        assertThat(Configuration.current().getLong("long", 1L)).isEqualTo(Long.MAX_VALUE);
+        assertThat(Configuration.current().getLong("foo", 1L)).isEqualTo(1L);
+        assertThat(Configuration.current().getDouble("double", 1.0)).isEqualTo(Double.MAX_VALUE);
+        assertThat(Configuration.current().getDouble("foo", 1.0)).isEqualTo(1.0);
+        assertThat(Configuration.current().getBoolean("booleanFalse", true)).isFalse();
+        assertThat(Configuration.current().getBoolean("foo", true)).isTrue();
+    }
+
+    @Test
+    public void testForEach() throws Exception {
+        Map<String,String> result = new HashMap<>();
+        Configuration.current().forEach(result::put);
+        assertThat(result).isEqualTo(Configuration.current().getProperties());
+    }
+
+    @Test
+    public void testGetProperties_Prefix() throws Exception {
+        assertThat(Configuration.current().getProperties("Str")).containsOnlyKeys("String");
+        assertThat(Configuration.current().getProperties("foo")).isEmpty();
+        assertThat(Configuration.current().getProperties("")).isEqualTo(Configuration.current().getProperties());
+    }
+
     @Test
     public void testget_Iterable() throws Exception {
         assertThat(Configuration.current().get(Arrays.asList("String","foo"))).isEqualTo("aStringValue");
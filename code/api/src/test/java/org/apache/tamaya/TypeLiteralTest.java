@@ -18,7 +18,10 @@
  */
 package org.apache.tamaya;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
 import static org.apache.tamaya.TypeLiteral.getGenericInterfaceTypeParameters;
 import static org.apache.tamaya.TypeLiteral.getTypeParameters;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -133,4 +136,37 @@ public class TypeLiteralTest {
         assertThat(a.equals(c)).isFalse();
     }
 
+    @Test
+    public void testOf_SharedForClasses(){
+        assertThat(TypeLiteral.of(String.class)).isSameAs(TypeLiteral.of(String.class));
+        assertThat(TypeLiteral.of(int.class)).isSameAs(TypeLiteral.of(int.class));
+        Type listOfString = new TypeLiteral<List<String>>() { }.getType();
+        assertThat(TypeLiteral.of(listOfString)).isEqualTo(TypeLiteral.of(listOfString));
+        assertThat(TypeLiteral.of(listOfString).hashCode()).isEqualTo(TypeLiteral.of(listOfString).hashCode());
+    }
+
+    @Test
+    public void testOf_DoesNotKeepClassLoadersReachable() throws Exception {
+        WeakReference<ClassLoader> loader = getLiteralOfRedeployedClass();
+        for(int i=0;i<50 && loader.get()!=null;i++){
+            System.gc();
+            Thread.sleep(20L);
+        }
+        assertThat(loader.get()).isNull();
+    }
+
+    private static WeakReference<ClassLoader> getLiteralOfRedeployedClass() throws Exception {
+        URL classes = TypeLiteralTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try(URLClassLoader cl = new URLClassLoader(new URL[]{classes}, null)){
+            Class<?> type = cl.loadClass(Redeployed.class.getName());
+            assertThat(type.getClassLoader()).isSameAs(cl);
+            assertThat(TypeLiteral.of(type)).isSameAs(TypeLiteral.of(type));
+            return new WeakReference<>(cl);
+        }
+    }
+
+    /** Class loaded again by a separate class loader. */
+    static final class Redeployed {
+    }
+
 }
@@ -91,6 +91,27 @@ public class ConversionContextTest {
                 < ctx.getSupportedFormats().indexOf(readable.get(1))).isTrue();
     }
 
+    @Test
+    public void testSupportedFormats_MultipleConverters() throws Exception {
+        ConversionContext ctx = new ConversionContext.Builder(TypeLiteral.of(List.class))
+                .addSupportedFormats(MyConverter.class, "a").build();
+        ctx.addSupportedFormats(MyConverter.class, "b", "c");
+        ctx.addSupportedFormats(String.class, "d");
+        ctx.addSupportedFormats(MyConverter.class, "b");
+        assertThat(ctx.getSupportedFormats()).containsExactly("a (MyConverter)", "b (MyConverter)",
+                "c (MyConverter)", "d (String)");
+    }
+
+    @Test
+    public void testBuilderReuse_DoesNotChangeValuesBuilt() throws Exception {
+        ConversionContext.Builder builder = new ConversionContext.Builder(TypeLiteral.of(List.class))
+                .setValues(PropertyValue.createValue("a", "1"));
+        ConversionContext ctx = builder.build();
+        builder.setValues(PropertyValue.createValue("b", "2"));
+        assertThat(ctx.getValues()).hasSize(1);
+        assertThat(builder.build().getValues()).hasSize(2);
+    }
+
     @Test
     public void testToString() throws Exception {
         ConversionContext ctx = new ConversionContext.Builder("toString", TypeLiteral.of(List.class))
@@ -69,6 +69,25 @@ public class FilterContextTest {
 //        assertNull(FilterContext.get());
 //    }
 
+    @Test
+    public void ofSharedConfigEntries() {
+        Map<String, PropertyValue> raw = new HashMap<>();
+        raw.put("a", PropertyValue.createValue("a", "1"));
+        raw.put("b", PropertyValue.createValue("b", "2"));
+        Map<String, PropertyValue> shared = FilterContext.createConfigEntries(raw);
+        raw.remove("a");
+        FilterContext ctxA = FilterContext.ofSharedConfigEntries(shared.get("a"), shared, ConfigurationContext.EMPTY);
+        FilterContext ctxB = FilterContext.ofSharedConfigEntries(shared.get("b"), shared, ConfigurationContext.EMPTY);
+        assertThat(ctxA.getConfigEntries()).isSameAs(shared).isSameAs(ctxB.getConfigEntries()).hasSize(2);
+        assertThat(ctxA.getProperty().getValue()).isEqualTo("1");
+        assertThat(ctxA.isSinglePropertyScoped()).isFalse();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void createConfigEntries_ReadOnly() {
+        FilterContext.createConfigEntries(new HashMap<>()).put("a", PropertyValue.createValue("a", "1"));
+    }
+
     @Test(expected = NullPointerException.class)
     public void constructorRequiresNonNullPropertyValueTwoParameterVariant1() {
         new FilterContext((PropertyValue)null, ConfigurationContext.EMPTY);
@@ -41,6 +41,9 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class BigDecimalConverter implements PropertyConverter<BigDecimal> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<bigDecimal> -> new BigDecimal(String)"};
+
     /** The logger. */
     private static final Logger LOG = Logger.getLogger(BigDecimalConverter.class.getName());
     /** Converter to be used if the format is not directly supported by BigDecimal, e.g. for integral hex values. */
@@ -48,7 +51,7 @@ public class BigDecimalConverter implements PropertyConverter<BigDecimal> {
 
     @Override
     public BigDecimal convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<bigDecimal> -> new BigDecimal(String)");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -41,12 +41,15 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class BigIntegerConverter implements PropertyConverter<BigInteger> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"[-]0X.. (hex)", "[-]0x... (hex)", "<bigint> -> new BigInteger(bigint)"};
+
     /** The logger. */
     private static final Logger LOG = Logger.getLogger(BigIntegerConverter.class.getName());
 
     @Override
     public BigInteger convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "[-]0X.. (hex)", "[-]0x... (hex)", "<bigint> -> new BigInteger(bigint)");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -32,13 +32,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class BooleanConverter implements PropertyConverter<Boolean> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"yes (ignore case)", "y (ignore case)", "true (ignore case)", "t (ignore case)", "1", "no (ignore case)", "n (ignore case)", "false (ignore case)", "f (ignore case)", "0"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public Boolean convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "yes (ignore case)", "y (ignore case)",
-                "true (ignore case)", "t (ignore case)", "1", "no (ignore case)", "n (ignore case)",
-                "false (ignore case)", "f (ignore case)", "0");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
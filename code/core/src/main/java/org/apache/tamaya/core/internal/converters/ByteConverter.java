@@ -47,11 +47,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class ByteConverter implements PropertyConverter<Byte>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<byte>", "MIN_VALUE", "MIN", "MAX_VALUE", "MAX"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public Byte convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(),"<byte>", "MIN_VALUE", "MIN", "MAX_VALUE", "MAX");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
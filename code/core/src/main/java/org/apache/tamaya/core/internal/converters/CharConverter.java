@@ -38,11 +38,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class CharConverter implements PropertyConverter<Character>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"\\'<char>\\'", "<char>", "<charNum>"};
+
     private static final Logger LOG = Logger.getLogger(CharConverter.class.getName());
 
     @Override
     public Character convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(),"\\'<char>\\'", "<char>", "<charNum>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
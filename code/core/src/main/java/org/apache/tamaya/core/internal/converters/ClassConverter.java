@@ -36,6 +36,9 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class ClassConverter implements PropertyConverter<Class<?>>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<fullyQualifiedClassName>"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
@@ -43,7 +46,7 @@ public class ClassConverter implements PropertyConverter<Class<?>>{
         if(value==null){
             return null;
         }
-        ctx.addSupportedFormats(getClass(),"<fullyQualifiedClassName>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         String trimmed = Objects.requireNonNull(value).trim();
         try{
             return Class.forName(trimmed, false, Thread.currentThread().getContextClassLoader());
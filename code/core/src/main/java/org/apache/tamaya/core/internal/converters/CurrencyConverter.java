@@ -41,12 +41,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class CurrencyConverter implements PropertyConverter<Currency> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<currencyCode>, using Locale.ENGLISH", "<numericValue>", "<locale>"};
+
     private static final Logger LOG = Logger.getLogger(CurrencyConverter.class.getName());
 
     @Override
     public Currency convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<currencyCode>, using Locale.ENGLISH", "<numericValue>",
-                "<locale>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -42,6 +42,9 @@ import java.util.logging.Logger;
  */
 @Component(service = PropertyConverter.class)
 public class DoubleConverter implements PropertyConverter<Double> {
+
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<double>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE", "POSITIVE_INFINITY", "NEGATIVE_INFINITY", "NAN"};
     /**
      * The logger.
      */
@@ -53,8 +56,7 @@ public class DoubleConverter implements PropertyConverter<Double> {
 
     @Override
     public Double convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<double>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE",
-                "POSITIVE_INFINITY", "NEGATIVE_INFINITY", "NAN");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
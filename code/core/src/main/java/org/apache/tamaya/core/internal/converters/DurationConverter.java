@@ -34,12 +34,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class DurationConverter implements PropertyConverter<Duration> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {Duration.of(1234, ChronoUnit.SECONDS).toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public Duration convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(),
-                Duration.of(1234, ChronoUnit.SECONDS).toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
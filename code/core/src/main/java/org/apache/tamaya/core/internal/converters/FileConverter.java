@@ -33,6 +33,9 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class FileConverter implements PropertyConverter<File> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<File>"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
@@ -40,7 +43,7 @@ public class FileConverter implements PropertyConverter<File> {
         if(value==null || value.isEmpty()){
             return null;
         }
-        ctx.addSupportedFormats(getClass(),"<File>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         String trimmed = Objects.requireNonNull(value).trim();
         try {
             return new File(trimmed);
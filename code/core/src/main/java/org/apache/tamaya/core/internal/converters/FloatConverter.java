@@ -42,6 +42,9 @@ import java.util.logging.Logger;
  */
 @Component(service = PropertyConverter.class)
 public class FloatConverter implements PropertyConverter<Float> {
+
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<float>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE", "POSITIVE_INFINITY", "NEGATIVE_INFINITY", "NAN"};
     /**
      * The logger.
      */
@@ -53,8 +56,7 @@ public class FloatConverter implements PropertyConverter<Float> {
 
     @Override
     public Float convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<float>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE",
-                        "POSITIVE_INFINITY", "NEGATIVE_INFINITY", "NAN");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
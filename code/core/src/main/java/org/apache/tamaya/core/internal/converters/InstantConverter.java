@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class InstantConverter implements PropertyConverter<Instant> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {Instant.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public Instant convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), Instant.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
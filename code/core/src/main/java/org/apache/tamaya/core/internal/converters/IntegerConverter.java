@@ -46,6 +46,9 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class IntegerConverter implements PropertyConverter<Integer>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<int>", "MIN_VALUE", "MIN", "MAX_VALUE", "MAX"};
+
     /**
      * The logger.
      */
@@ -53,7 +56,7 @@ public class IntegerConverter implements PropertyConverter<Integer>{
 
     @Override
     public Integer convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<int>", "MIN_VALUE", "MIN", "MAX_VALUE", "MAX");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class LocalDateConverter implements PropertyConverter<LocalDate> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {LocalDate.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public LocalDate convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), LocalDate.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class LocalDateTimeConverter implements PropertyConverter<LocalDateTime> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {LocalDateTime.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public LocalDateTime convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), LocalDateTime.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class LocalTimeConverter implements PropertyConverter<LocalTime> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {LocalTime.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public LocalTime convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), LocalTime.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
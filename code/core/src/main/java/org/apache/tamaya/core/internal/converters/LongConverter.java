@@ -46,11 +46,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class LongConverter implements PropertyConverter<Long>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<long>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE"};
+
     private static final Logger LOGGER = Logger.getLogger(LongConverter.class.getName());
 
     @Override
     public Long convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<long>", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
 
         if(value==null){
             return null;
@@ -39,6 +39,9 @@ import java.util.logging.Logger;
  */
 @Component(service = PropertyConverter.class)
 public class NumberConverter implements PropertyConverter<Number>{
+
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<double>, <long>", "0x (hex)", "0X... (hex)", "POSITIVE_INFINITY", "NEGATIVE_INFINITY", "NAN"};
     /** the logger. */
     private static final Logger LOGGER = Logger.getLogger(NumberConverter.class.getName());
     /** Converter used for trying to parse as an integral createValue. */
@@ -46,8 +49,7 @@ public class NumberConverter implements PropertyConverter<Number>{
 
     @Override
     public Number convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<double>, <long>", "0x (hex)", "0X... (hex)", "POSITIVE_INFINITY",
-                "NEGATIVE_INFINITY", "NAN");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
 
         if(value==null){
             return null;
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class OffsetDateTimeConverter implements PropertyConverter<OffsetDateTime> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {OffsetDateTime.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public OffsetDateTime convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), OffsetDateTime.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
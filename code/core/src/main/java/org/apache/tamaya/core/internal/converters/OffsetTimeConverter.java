@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class OffsetTimeConverter implements PropertyConverter<OffsetTime> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {OffsetTime.now().toString()};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public OffsetTime convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), OffsetTime.now().toString());
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -34,11 +34,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class PathConverter implements PropertyConverter<Path> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<File>"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public Path convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(),"<File>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
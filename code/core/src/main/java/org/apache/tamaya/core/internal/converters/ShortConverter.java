@@ -46,12 +46,15 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class ShortConverter implements PropertyConverter<Short>{
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"short", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE"};
+
     /** the logger. */
     private static final Logger LOG = Logger.getLogger(ShortConverter.class.getName());
 
     @Override
     public Short convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "short", "MIN", "MIN_VALUE", "MAX", "MAX_VALUE");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class URIConverter implements PropertyConverter<URI> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<uri> -> new URI(uri)"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public URI convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<uri> -> new URI(uri)");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
@@ -33,11 +33,14 @@ import java.util.logging.Logger;
 @Component(service = PropertyConverter.class)
 public class URLConverter implements PropertyConverter<URL> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<URL>"};
+
     private final Logger LOG = Logger.getLogger(getClass().getName());
 
     @Override
     public URL convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(),"<URL>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         if(value==null){
             return null;
         }
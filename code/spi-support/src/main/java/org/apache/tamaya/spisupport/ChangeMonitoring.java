@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared infrastructure for monitoring changes of property sources. It provides the scheduler used for reloading
+ * property sources, which by default is a shared pool of daemon threads and can be replaced by a custom
+ * scheduler, the executor for dispatching change events asynchronously, as well as a shared {@link WatchService}
+ * for watching local files.
+ */
+public final class ChangeMonitoring {
+
+    private static final Logger LOG = Logger.getLogger(ChangeMonitoring.class.getName());
+
+    private static ScheduledExecutorService defaultScheduler;
+    private static volatile ScheduledExecutorService scheduler;
+    private static ExecutorService defaultDispatchExecutor;
+    private static volatile ExecutorService dispatchExecutor;
+    /** The number of threads of the default dispatch executor. */
+    private static final int DISPATCH_THREADS = 4;
+    /** The number of events queued by the default dispatch executor, further events are rejected. */
+    private static final int DISPATCH_QUEUE_CAPACITY = 1024;
+    private static FileWatcher fileWatcher;
+
+    /**
+     * Private singleton constructor.
+     */
+    private ChangeMonitoring(){}
+
+    /**
+     * Access the scheduler used for reloading property sources. If no scheduler has been set, a shared scheduler
+     * using daemon threads is used.
+     * @return the scheduler, never null.
+     */
+    public static ScheduledExecutorService getScheduler(){
+        ScheduledExecutorService result = scheduler;
+        if(result==null){
+            result = getDefaultScheduler();
+        }
+        return result;
+    }
+
+    /**
+     * Sets the scheduler used for reloading property sources. Reloads already scheduled are not affected.
+     * @param scheduler the scheduler, or null, for using the default scheduler.
+     */
+    public static void setScheduler(ScheduledExecutorService scheduler){
+        ChangeMonitoring.scheduler = scheduler;
+    }
+
+    /**
+     * Access the executor used for dispatching change events asynchronously. If no executor has been set, a shared
+     * executor using a bounded number of daemon threads and a bounded queue is used. If the executor rejects an
+     * event, it is dispatched again later, coalesced with the changes arriving meanwhile.
+     * @return the executor, never null.
+     */
+    public static ExecutorService getDispatchExecutor(){
+        ExecutorService result = dispatchExecutor;
+        if(result==null){
+            result = getDefaultDispatchExecutor();
+        }
+        return result;
+    }
+
+    /**
+     * Sets the executor used for dispatching change events asynchronously.
+     * @param executor the executor, or null, for using the default executor.
+     */
+    public static void setDispatchExecutor(ExecutorService executor){
+        ChangeMonitoring.dispatchExecutor = executor;
+    }
+
+    private static synchronized ExecutorService getDefaultDispatchExecutor(){
+        if(defaultDispatchExecutor==null){
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(DISPATCH_THREADS, DISPATCH_THREADS,
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(DISPATCH_QUEUE_CAPACITY), r -> {
+                Thread thread = new Thread(r, "tamaya-change-dispatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            defaultDispatchExecutor = executor;
+        }
+        return defaultDispatchExecutor;
+    }
+
+    private static synchronized ScheduledExecutorService getDefaultScheduler(){
+        if(defaultScheduler==null){
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, r -> {
+                Thread thread = new Thread(r, "tamaya-change-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            defaultScheduler = executor;
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * Watches a local file for changes. The callback is run on the {@link #getScheduler() scheduler}, whenever the
+     * file is created, modified or deleted.
+     * @param file the file, not null.
+     * @param callback the callback, not null.
+     * @return the handle for stopping watching, or null, if the file cannot be watched.
+     */
+    static Runnable watch(Path file, Runnable callback){
+        try {
+            return getFileWatcher().register(file.toAbsolutePath().normalize(), callback);
+        } catch (Exception e) {
+            LOG.log(Level.FINE, "Cannot watch file: " + file, e);
+            return null;
+        }
+    }
+
+    private static synchronized FileWatcher getFileWatcher() throws IOException {
+        if(fileWatcher==null){
+            fileWatcher = new FileWatcher(FileSystems.getDefault().newWatchService());
+        }
+        return fileWatcher;
+    }
+
+    /**
+     * Watcher dispatching the file events of a {@link WatchService} to the callbacks registered per file, using
+     * a single daemon thread.
+     */
+    private static final class FileWatcher implements Runnable{
+        private final WatchService watchService;
+        private final Map<Path, WatchKey> directories = new HashMap<>();
+        private final Map<Path, List<Runnable>> callbacks = new HashMap<>();
+
+        FileWatcher(WatchService watchService){
+            this.watchService = watchService;
+            Thread thread = new Thread(this, "tamaya-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        synchronized Runnable register(Path file, Runnable callback) throws IOException {
+            Path dir = file.getParent();
+            if(dir==null){
+                throw new IOException("No parent directory: " + file);
+            }
+            if(!directories.containsKey(dir)){
+                directories.put(dir, dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+            }
+            callbacks.computeIfAbsent(file, f -> new ArrayList<>()).add(callback);
+            return () -> unregister(file, callback);
+        }
+
+        private synchronized void unregister(Path file, Runnable callback){
+            List<Runnable> fileCallbacks = callbacks.get(file);
+            if(fileCallbacks==null || !fileCallbacks.remove(callback) || !fileCallbacks.isEmpty()){
+                return;
+            }
+            callbacks.remove(file);
+            Path dir = file.getParent();
+            for(Path watched:callbacks.keySet()){
+                if(dir.equals(watched.getParent())){
+                    return;
+                }
+            }
+            WatchKey key = directories.remove(dir);
+            if(key!=null){
+                key.cancel();
+            }
+        }
+
+        private synchronized List<Runnable> getCallbacks(Path dir, Path file){
+            List<Runnable> result = new ArrayList<>();
+            for(Map.Entry<Path, List<Runnable>> en:callbacks.entrySet()){
+                if(file==null?dir.equals(en.getKey().getParent()):file.equals(en.getKey())){
+                    result.addAll(en.getValue());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void run() {
+            while(true){
+                WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                Path dir = (Path)key.watchable();
+                Set<Runnable> triggered = new LinkedHashSet<>();
+                for(WatchEvent<?> event:key.pollEvents()){
+                    if(event.kind()==StandardWatchEventKinds.OVERFLOW){
+                        triggered.addAll(getCallbacks(dir, null));
+                    }else{
+                        triggered.addAll(getCallbacks(dir, dir.resolve((Path)event.context())));
+                    }
+                }
+                key.reset();
+                for(Runnable callback:triggered){
+                    try{
+                        getScheduler().execute(callback);
+                    }catch(Exception e){
+                        LOG.log(Level.WARNING, "Failed to dispatch file change: " + dir, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.ChangeSupport;
+import org.apache.tamaya.spi.PropertySource;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Tracks the changes of a list of property sources, for state derived from their values. Changes are detected
+ * by comparing the {@link PropertySource#getVersion() versions} of the property sources with the versions
+ * recorded, the keys changed are taken from the change notifications received. The version recorded with a
+ * notification is the version including its changes, as provided by {@link PropertySourceChangeSupport.ChangedKeys}.
+ * If the version of a property source changed without a notification received for it, e.g. because notifications
+ * are dispatched asynchronously and not delivered yet, or if a notification does not provide its version, the keys
+ * changed are not known and all derived state must be evaluated again.
+ * <p>Only property sources with {@link ChangeSupport#SUPPORTED change support} are tracked. The change
+ * listeners registered only hold a weak reference to the tracker, so the tracker does not keep its owner reachable
+ * from long-lived property sources. Listeners of trackers garbage collected are removed.</p>
+ * This class is thread-safe.
+ */
+final class ChangeTracker {
+
+    private static final ReferenceQueue<ChangeTracker> COLLECTED = new ReferenceQueue<>();
+
+    private final SourceState[] states;
+    /** Flag set, if notifications have been received since the last {@link #poll()}. */
+    private volatile boolean notified;
+
+    /**
+     * Creates a new tracker, recording the current versions of the property sources. The tracker must be
+     * created before the derived state is evaluated.
+     * @param propertySources the property sources, not null.
+     */
+    ChangeTracker(Collection<PropertySource> propertySources){
+        purge();
+        List<SourceState> states = new ArrayList<>();
+        for(PropertySource ps:propertySources){
+            if(ps.getChangeSupport()==ChangeSupport.SUPPORTED){
+                states.add(new SourceState(ps));
+            }
+        }
+        this.states = states.toArray(new SourceState[states.size()]);
+        if(this.states.length>0){
+            Listener listener = new Listener(this);
+            for(SourceState state:this.states){
+                listener.register(state.propertySource);
+            }
+        }
+    }
+
+    /**
+     * Removes the listeners of the trackers garbage collected.
+     */
+    private static void purge(){
+        Reference<? extends ChangeTracker> ref;
+        while((ref = COLLECTED.poll())!=null){
+            ((Listener)ref).unregister();
+        }
+    }
+
+    /**
+     * Evaluates the changes since the last call. This method is cheap, if nothing has changed: it compares the
+     * versions of the property sources tracked, without allocating any objects.
+     * @return the keys changed, an empty set, if nothing has changed, or {@code null}, if the keys changed are not
+     * known.
+     */
+    Set<String> poll(){
+        if(!notified && isCurrent() && !notified){
+            return Collections.emptySet();
+        }
+        synchronized (this){
+            notified = false;
+            Set<String> keys = new HashSet<>();
+            boolean unknown = false;
+            for(SourceState state:states){
+                String version = state.propertySource.getVersion();
+                if(!Objects.equals(version, state.version)){
+                    state.version = version;
+                    unknown = true;
+                }
+                keys.addAll(state.changedKeys);
+                state.changedKeys.clear();
+            }
+            return unknown?null:keys;
+        }
+    }
+
+    private boolean isCurrent(){
+        for(SourceState state:states){
+            if(!Objects.equals(state.propertySource.getVersion(), state.version)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void changed(Set<String> keys, PropertySource propertySource){
+        for(SourceState state:states){
+            if(state.propertySource==propertySource){
+                // a change not notified yet has a later version than the one delivered with the keys.
+                if(keys instanceof PropertySourceChangeSupport.ChangedKeys){
+                    state.version = ((PropertySourceChangeSupport.ChangedKeys)keys).getVersion();
+                }
+                state.changedKeys.addAll(keys);
+                notified = true;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeTracker{" +
+                "propertySources=" + states.length +
+                '}';
+    }
+
+    /**
+     * The state tracked for a single property source.
+     */
+    private static final class SourceState{
+        private final PropertySource propertySource;
+        /** The version, up to which all changes are processed or contained in {@link #changedKeys}. */
+        private volatile String version;
+        private final Set<String> changedKeys = new HashSet<>();
+
+        SourceState(PropertySource propertySource){
+            this.propertySource = propertySource;
+            this.version = propertySource.getVersion();
+        }
+    }
+
+    /**
+     * Change listener only holding a weak reference to its tracker.
+     */
+    private static final class Listener extends WeakReference<ChangeTracker>
+            implements BiConsumer<Set<String>, PropertySource> {
+        private final List<WeakReference<PropertySource>> propertySources = new ArrayList<>();
+
+        Listener(ChangeTracker tracker){
+            super(tracker, COLLECTED);
+        }
+
+        void register(PropertySource propertySource){
+            synchronized (propertySources){
+                propertySources.add(new WeakReference<>(propertySource));
+            }
+            propertySource.addChangeListener(this);
+        }
+
+        void unregister(){
+            synchronized (propertySources){
+                for(WeakReference<PropertySource> ref:propertySources){
+                    PropertySource ps = ref.get();
+                    if(ps!=null){
+                        ps.removeChangeListener(this);
+                    }
+                }
+                propertySources.clear();
+            }
+        }
+
+        @Override
+        public void accept(Set<String> keys, PropertySource propertySource) {
+            ChangeTracker tracker = get();
+            if(tracker==null){
+                propertySource.removeChangeListener(this);
+            }else{
+                tracker.changed(keys, propertySource);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.spi.ChangeSupport;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of resolved (evaluated, filtered and converted) configuration values, keyed by the property key and
+ * the requested target type. Before a cached value is returned, the versions of the {@link PropertySource}
+ * instances of the context are checked using a {@link ChangeTracker}: entries are invalidated by the keys
+ * notified as changed, or all entries, if a property source changed without a notification delivered yet.
+ * The cache therefore can only be used, if all property sources are either {@link ChangeSupport#IMMUTABLE} or
+ * {@link ChangeSupport#SUPPORTED}, use {@link #of(ConfigurationContext)} to create instances. Missing values are
+ * cached as well, but only up to {@link #MAX_NULL_VALUES} entries, so lookups of arbitrary missing keys do not
+ * grow the cache without limit.
+ * This class is thread-safe.
+ */
+final class ConfigValueCache {
+
+    private static final Logger LOG = Logger.getLogger(ConfigValueCache.class.getName());
+
+    /** Marker used for caching {@code null} values. */
+    static final Object NULL_VALUE = new Object();
+    /** The maximal number of cached {@code null} values, the limit is applied approximately under contention. */
+    static final int MAX_NULL_VALUES = 1024;
+
+    /** The cached values, key -&gt; (target type -&gt; value). */
+    private final Map<String, Map<TypeLiteral<?>, Object>> values = new ConcurrentHashMap<>();
+    /** Stamp incremented on each change notification. */
+    private final AtomicLong stamp = new AtomicLong();
+    /** The number of cached {@code null} values. */
+    private final AtomicInteger nullValues = new AtomicInteger();
+    /** The tracker of the changes of the property sources. */
+    private final ChangeTracker changeTracker;
+
+    private ConfigValueCache(ConfigurationContext context){
+        this.changeTracker = new ChangeTracker(context.getPropertySources());
+    }
+
+    /**
+     * Creates a new cache for the given context, if all its property sources provide change notifications.
+     * @param context the configuration context, not null.
+     * @return the new cache, or {@code null}, if values of the context cannot be cached.
+     */
+    static ConfigValueCache of(ConfigurationContext context){
+        return of(context, Level.INFO);
+    }
+
+    /**
+     * Creates a new cache for the given context, if all its property sources provide change notifications.
+     * @param context the configuration context, not null.
+     * @param logLevel the level used for logging, that the values of the context cannot be cached, not null.
+     * @return the new cache, or {@code null}, if values of the context cannot be cached.
+     */
+    static ConfigValueCache of(ConfigurationContext context, Level logLevel){
+        Objects.requireNonNull(context);
+        for(PropertySource ps:context.getPropertySources()){
+            if(ps.getChangeSupport()==ChangeSupport.UNSUPPORTED){
+                LOG.log(logLevel, "Value cache disabled, property source does not support change notification: "
+                        + ps.getName());
+                return null;
+            }
+        }
+        return new ConfigValueCache(context);
+    }
+
+    /**
+     * Access a cached value.
+     * @param key the key, not null.
+     * @param type the target type, not null.
+     * @return the cached value, {@link #NULL_VALUE} for a cached {@code null} value, or {@code null}, if
+     * no value is cached.
+     */
+    Object get(String key, TypeLiteral<?> type){
+        Set<String> changedKeys = changeTracker.poll();
+        if(changedKeys==null){
+            clear();
+        }else if(!changedKeys.isEmpty()){
+            invalidate(changedKeys);
+        }
+        Map<TypeLiteral<?>, Object> typedValues = values.get(key);
+        if(typedValues==null){
+            return null;
+        }
+        return typedValues.get(type);
+    }
+
+    /**
+     * Get the current stamp, which must be evaluated after {@link #get(String, TypeLiteral)} and before the value
+     * to be cached is evaluated.
+     * @return the current stamp.
+     */
+    long getStamp(){
+        return stamp.get();
+    }
+
+    /**
+     * Caches a value. If the cache was invalidated since {@code stamp} was evaluated, the value is not cached.
+     * A {@code null} value is not cached either, if {@link #MAX_NULL_VALUES} {@code null} values are cached already.
+     * @param key the key, not null.
+     * @param type the target type, not null.
+     * @param value the value, may be null.
+     * @param stamp the stamp evaluated using {@link #getStamp()} before the value was evaluated.
+     */
+    void put(String key, TypeLiteral<?> type, Object value, long stamp){
+        if(stamp!=this.stamp.get()){
+            return;
+        }
+        if(value==null && nullValues.get()>=MAX_NULL_VALUES){
+            return;
+        }
+        Object cachedValue = value==null?NULL_VALUE:value;
+        Map<TypeLiteral<?>, Object> typedValues = values.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        Object previous = typedValues.put(type, cachedValue);
+        if(cachedValue==NULL_VALUE){
+            nullValues.incrementAndGet();
+        }
+        removed(previous);
+        if(stamp!=this.stamp.get()){
+            // a change happened concurrently, the value may be outdated.
+            if(typedValues.remove(type, cachedValue)){
+                removed(cachedValue);
+            }
+        }
+    }
+
+    /**
+     * Updates the number of cached {@code null} values for a value removed from the cache.
+     * @param value the removed value, may be null.
+     */
+    private void removed(Object value){
+        if(value==NULL_VALUE){
+            nullValues.decrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidates the given keys.
+     * @param keys the changed keys, not null.
+     */
+    void invalidate(Set<String> keys){
+        stamp.incrementAndGet();
+        for(String key:keys){
+            Map<TypeLiteral<?>, Object> typedValues = values.remove(key);
+            if(typedValues!=null){
+                typedValues.values().forEach(this::removed);
+            }
+        }
+    }
+
+    /**
+     * Clears all cached values.
+     */
+    void clear(){
+        stamp.incrementAndGet();
+        values.clear();
+        nullValues.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigValueCache{" +
+                "keys=" + values.size() +
+                ", nullValues=" + nullValues +
+                ", stamp=" + stamp +
+                '}';
+    }
+}
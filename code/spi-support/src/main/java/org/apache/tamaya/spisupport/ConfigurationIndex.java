@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.ChangeSupport;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Flattened, pre-filtered index of all keys of a {@link ConfigurationContext}. For each key the index holds
+ * the filtered, most significant value as well as the filtered list of all values, in order of significance, and
+ * the unfiltered value, as merged by {@link org.apache.tamaya.Configuration#getProperties()}.
+ * The index can only be created, if all property sources are scannable and either
+ * {@link ChangeSupport#IMMUTABLE} or {@link ChangeSupport#SUPPORTED}. Before entries are accessed, the versions
+ * of the property sources are checked using a {@link ChangeTracker}: changes notified by property sources are
+ * applied incrementally, by re-evaluating the changed keys only, while a property source changed without a
+ * notification delivered yet causes all keys to be evaluated again. The keys are held sorted, so all entries
+ * with a given key prefix can be accessed without scanning the full index.
+ * <p>
+ * Keys are collected from {@link PropertySource#getProperties()}, so a property source may still provide values
+ * for keys not contained in the index (e.g. environment properties accessed with a dotted key). Callers must
+ * therefore fall back to the regular evaluation if no entry is present.
+ * </p>
+ * This class is thread-safe.
+ */
+final class ConfigurationIndex {
+
+    private static final Logger LOG = Logger.getLogger(ConfigurationIndex.class.getName());
+
+    private final ConfigurationContext context;
+    private final ConcurrentNavigableMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final ChangeTracker changeTracker;
+    private final Map<String, PropertyValue> rawValues = new RawValues();
+
+    private ConfigurationIndex(ConfigurationContext context){
+        this.context = context;
+        this.changeTracker = new ChangeTracker(context.getPropertySources());
+    }
+
+    /**
+     * Creates a new index for the given context.
+     * @param context the context, not null.
+     * @return the new index, or {@code null}, if the context cannot be indexed.
+     */
+    @SuppressWarnings("deprecation")
+    static ConfigurationIndex of(ConfigurationContext context){
+        Objects.requireNonNull(context);
+        for(PropertySource ps:context.getPropertySources()){
+            if(ps.getChangeSupport()==ChangeSupport.UNSUPPORTED || !ps.isScannable()){
+                LOG.info("Configuration index disabled, property source is not scannable or does not " +
+                        "support change notification: " + ps.getName());
+                return null;
+            }
+        }
+        ConfigurationIndex index = new ConfigurationIndex(context);
+        index.update(index.collectKeys());
+        return index;
+    }
+
+    /**
+     * Access the entry for the given key.
+     * @param key the key, not null.
+     * @return the entry, or {@code null}, if the key is not indexed.
+     */
+    Entry get(String key){
+        refresh();
+        return entries.get(key);
+    }
+
+    /**
+     * Passes all entries, whose keys start with the given prefix, to the consumer, in key order.
+     * @param prefix the key prefix, not null.
+     * @param consumer the consumer, not null.
+     */
+    void forEach(String prefix, BiConsumer<String, Entry> consumer){
+        refresh();
+        for(Map.Entry<String, Entry> en:entries.tailMap(prefix, true).entrySet()){
+            if(!en.getKey().startsWith(prefix)){
+                break;
+            }
+            consumer.accept(en.getKey(), en.getValue());
+        }
+    }
+
+    /**
+     * Get the unfiltered values of all keys indexed, as merged by {@link org.apache.tamaya.Configuration#getProperties()}
+     * before filtering. The map is a read-only view of the index, so it can be passed as shared configuration
+     * entries to filters without evaluating all keys: single keys are looked up in the index, only iterating the
+     * map visits all keys.
+     * @return the raw values, never null.
+     */
+    Map<String, PropertyValue> getRawValues(){
+        return rawValues;
+    }
+
+    /**
+     * Get the number of keys indexed.
+     * @return the number of keys.
+     */
+    int size(){
+        refresh();
+        return entries.size();
+    }
+
+    /**
+     * Applies the changes of the property sources since the last access.
+     */
+    private void refresh(){
+        Set<String> changedKeys = changeTracker.poll();
+        if(changedKeys==null){
+            Set<String> keys = collectKeys();
+            keys.addAll(entries.keySet());
+            update(keys);
+        }else if(!changedKeys.isEmpty()){
+            update(changedKeys);
+        }
+    }
+
+    private Set<String> collectKeys(){
+        Set<String> keys = new HashSet<>();
+        for(PropertySource ps:context.getPropertySources()){
+            keys.addAll(ps.getProperties().keySet());
+        }
+        return keys;
+    }
+
+    /**
+     * Re-evaluates the given keys.
+     * @param keys the keys, not null.
+     */
+    private synchronized void update(Set<String> keys){
+        for(String key:keys){
+            Entry entry = evaluate(key);
+            if(entry==null){
+                entries.remove(key);
+            }else{
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    private Entry evaluate(String key){
+        List<PropertySource> propertySources = context.getPropertySources();
+        List<PropertyValue> values = new ArrayList<>();
+        for (int i = propertySources.size() - 1; i >= 0; i--) {
+            PropertySource ps = propertySources.get(i);
+            try{
+                PropertyValue val = ps.get(key);
+                if(val!=null){
+                    values.add(val);
+                }
+            }catch(Exception e){
+                LOG.log(Level.WARNING, "Failed to access '"+key+"' from PropertySource: " + ps.getName(), e);
+            }
+        }
+        if(values.isEmpty()){
+            return null;
+        }
+        PropertyValue rawValue = null;
+        for(PropertyValue val:values){
+            if(val.getValueType()!=PropertyValue.ValueType.VALUE || val.getValue()!=null){
+                rawValue = val;
+                break;
+            }
+        }
+        PropertyValue value = values.get(0);
+        if(value.getValue()==null){
+            value = null;
+        }else{
+            value = PropertyFiltering.applyFilter(value, context);
+        }
+        return new Entry(value, Collections.unmodifiableList(PropertyFiltering.applyFilters(values, context)),
+                rawValue);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationIndex{" +
+                "keys=" + entries.size() +
+                '}';
+    }
+
+    /**
+     * Read-only view of the raw values of the index entries.
+     */
+    private final class RawValues extends AbstractMap<String, PropertyValue>{
+
+        @Override
+        public PropertyValue get(Object key) {
+            ConfigurationIndex.Entry entry = entries.get(key);
+            return entry==null?null:entry.getRawValue();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key)!=null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, PropertyValue>> entrySet() {
+            return new AbstractSet<Map.Entry<String, PropertyValue>>() {
+                @Override
+                public Iterator<Map.Entry<String, PropertyValue>> iterator() {
+                    Iterator<Map.Entry<String, ConfigurationIndex.Entry>> it = entries.entrySet().iterator();
+                    return new Iterator<Map.Entry<String, PropertyValue>>() {
+                        private Map.Entry<String, PropertyValue> next = advance();
+
+                        private Map.Entry<String, PropertyValue> advance(){
+                            while(it.hasNext()){
+                                Map.Entry<String, ConfigurationIndex.Entry> en = it.next();
+                                if(en.getValue().getRawValue()!=null){
+                                    return new SimpleImmutableEntry<>(en.getKey(), en.getValue().getRawValue());
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next!=null;
+                        }
+
+                        @Override
+                        public Map.Entry<String, PropertyValue> next() {
+                            if(next==null){
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<String, PropertyValue> result = next;
+                            next = advance();
+                            return result;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for(ConfigurationIndex.Entry entry:entries.values()){
+                        if(entry.getRawValue()!=null){
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Index entry for a single key.
+     */
+    static final class Entry{
+        private final PropertyValue value;
+        private final List<PropertyValue> values;
+        private final PropertyValue rawValue;
+
+        private Entry(PropertyValue value, List<PropertyValue> values, PropertyValue rawValue){
+            this.value = value;
+            this.values = values;
+            this.rawValue = rawValue;
+        }
+
+        /**
+         * Get the unfiltered value, i.e. the most significant value present.
+         * @return the value, or {@code null}.
+         */
+        PropertyValue getRawValue() {
+            return rawValue;
+        }
+
+        /**
+         * Get the filtered, most significant value.
+         * @return the value, or {@code null}.
+         */
+        PropertyValue getValue() {
+            return value;
+        }
+
+        /**
+         * Get the filtered values, in order of significance.
+         * @return the values, never null.
+         */
+        List<PropertyValue> getValues() {
+            return values;
+        }
+    }
+}
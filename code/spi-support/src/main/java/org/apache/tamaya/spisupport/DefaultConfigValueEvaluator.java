@@ -23,48 +23,152 @@ import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 /**
  * Implementation of the Configuration API. This class uses the current {@link ConfigurationContext} to evaluate the
  * chain of {@link PropertySource} and {@link PropertyFilter}
  * instances to evaluate the current Configuration.
+ * <p>
+ * Single values are evaluated starting with the most significant property source, stopping at the first source
+ * returning a value. Optionally the evaluator can operate in <i>short-circuit</i> mode, where also
+ * {@link #evaluateAllValues(String, ConfigurationContext)} only returns the most significant value instead of the
+ * values of all property sources. This avoids accessing less significant property sources at all, but should only be
+ * enabled, if no {@link PropertyFilter} or {@link org.apache.tamaya.spi.PropertyConverter} relies on the full list
+ * of values. Short-circuit mode can also be enabled by setting the {@code tamaya.evaluation.shortcircuit}
+ * system/environment property to {@code true}.
+ * </p>
  */
 public class DefaultConfigValueEvaluator implements ConfigValueEvaluator{
 
+    private static final Logger LOG = Logger.getLogger(DefaultConfigValueEvaluator.class.getName());
+
+    /** Flag, if only the most significant value should be evaluated. */
+    private final boolean shortCircuit;
+
+    /**
+     * Creates a new instance, the short-circuit mode is read from the
+     * {@code tamaya.evaluation.shortcircuit} system/environment property.
+     */
+    public DefaultConfigValueEvaluator(){
+        this(isShortCircuitEnabled());
+    }
+
+    /**
+     * Creates a new instance.
+     * @param shortCircuit if true, {@link #evaluateAllValues(String, ConfigurationContext)} only
+     *                     evaluates the most significant value.
+     */
+    public DefaultConfigValueEvaluator(boolean shortCircuit){
+        this.shortCircuit = shortCircuit;
+    }
+
+    private static boolean isShortCircuitEnabled() {
+        String value = System.getProperty("tamaya.evaluation.shortcircuit");
+        if(value==null){
+            value = System.getenv("tamaya.evaluation.shortcircuit");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Access the short-circuit mode.
+     * @return true, if only the most significant value is evaluated.
+     */
+    public boolean isShortCircuit() {
+        return shortCircuit;
+    }
+
     @Override
     public PropertyValue evaluateRawValue(String key, ConfigurationContext context) {
-        PropertyValue unfilteredValue = null;
-        for (PropertySource propertySource : context.getPropertySources()) {
-            PropertyValue val = propertySource.get(key);
+        List<PropertySource> propertySources = context.getPropertySources();
+        for (int i = propertySources.size() - 1; i >= 0; i--) {
+            PropertyValue val = propertySources.get(i).get(key);
             if(val!=null){
-                unfilteredValue = val;
+                if(val.getValueType()== PropertyValue.ValueType.VALUE && val.getValue()==null){
+                    return null;
+                }
+                return val;
             }
         }
-        if(unfilteredValue==null ||
-                (unfilteredValue.getValueType()== PropertyValue.ValueType.VALUE && unfilteredValue.getValue()==null)){
-            return null;
+        return null;
+    }
+
+    @Override
+    public List<PropertyValue> evaluateAllValues(String key, ConfigurationContext context) {
+        if(!shortCircuit){
+            return ConfigValueEvaluator.super.evaluateAllValues(key, context);
+        }
+        List<PropertySource> propertySources = context.getPropertySources();
+        for (int i = propertySources.size() - 1; i >= 0; i--) {
+            PropertySource ps = propertySources.get(i);
+            try{
+                PropertyValue val = ps.get(key);
+                if(val!=null){
+                    return Collections.singletonList(val);
+                }
+            }catch(Exception e){
+                LOG.log(Level.WARNING, "Failed to access '"+key+"' from PropertySource: " + ps.getName(), e);
+            }
         }
-        return unfilteredValue;
+        return Collections.emptyList();
     }
 
     @Override
     public Map<String, PropertyValue> evaluateRawValues(ConfigurationContext context) {
         Map<String, PropertyValue> result = new HashMap<>();
         for (PropertySource propertySource : context.getPropertySources()) {
-            for (PropertyValue val: propertySource.getProperties().values()) {
-                if (val!=null && (val.getValueType() != PropertyValue.ValueType.VALUE || val.getValue() != null)){
-                    result.put(val.getKey(), val);
-                }
-            }
+            merge(propertySource.getProperties(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates all raw values, hereby accessing the property sources concurrently on the given pool. The
+     * property maps are merged in the order of the property sources, so the result is the same as
+     * returned by {@link #evaluateRawValues(ConfigurationContext)}. The property sources must support
+     * concurrent access.
+     * @param context the configuration context, not null.
+     * @param pool the pool used for accessing the property sources, not null.
+     * @return the raw values, never null.
+     */
+    public Map<String, PropertyValue> evaluateRawValues(ConfigurationContext context, ForkJoinPool pool) {
+        List<PropertySource> propertySources = context.getPropertySources();
+        if(propertySources.size()<2){
+            return evaluateRawValues(context);
+        }
+        List<ForkJoinTask<Map<String, PropertyValue>>> tasks = new ArrayList<>(propertySources.size());
+        for (PropertySource propertySource : propertySources) {
+            tasks.add(pool.submit(propertySource::getProperties));
+        }
+        Map<String, PropertyValue> result = new HashMap<>();
+        for (ForkJoinTask<Map<String, PropertyValue>> task : tasks) {
+            merge(task.join(), result);
         }
         return result;
     }
 
+    private static void merge(Map<String, PropertyValue> properties, Map<String, PropertyValue> result) {
+        for (PropertyValue val: properties.values()) {
+            if (val!=null && (val.getValueType() != PropertyValue.ValueType.VALUE || val.getValue() != null)){
+                result.put(val.getKey(), val);
+            }
+        }
+    }
+
     @Override
     public String toString() {
-        return "DefaultConfigEvaluator{}";
+        return "DefaultConfigEvaluator{" +
+                "shortCircuit=" + shortCircuit +
+                '}';
     }
 }
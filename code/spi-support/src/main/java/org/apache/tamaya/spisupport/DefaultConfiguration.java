@@ -22,6 +22,9 @@ import org.apache.tamaya.*;
 import org.apache.tamaya.spi.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,6 +39,22 @@ public class DefaultConfiguration implements Configuration {
      */
     private static final Logger LOG = Logger.getLogger(DefaultConfiguration.class.getName());
 
+    private static final TypeLiteral<Integer> INTEGER_TYPE = TypeLiteral.of(Integer.class);
+    private static final TypeLiteral<Long> LONG_TYPE = TypeLiteral.of(Long.class);
+    private static final TypeLiteral<Double> DOUBLE_TYPE = TypeLiteral.of(Double.class);
+    private static final TypeLiteral<Boolean> BOOLEAN_TYPE = TypeLiteral.of(Boolean.class);
+
+    /**
+     * The maximal number of keys, whose values are kept by the primitive accessors per primitive type.
+     */
+    private static final int MAX_PARSED_VALUES = 1024;
+
+    /**
+     * The pools shared by all instances configured with a {@code tamaya.evaluation.parallel} parallelism, by
+     * parallelism. Pools are never replaced, since instances created before may still use them.
+     */
+    private static final Map<Integer, ForkJoinPool> SHARED_PARALLEL_POOLS = new ConcurrentHashMap<>();
+
     /**
      * The current {@link ConfigurationContext} of the current instance.
      */
@@ -46,6 +65,35 @@ public class DefaultConfiguration implements Configuration {
      */
     private ConfigValueEvaluator configEvaluator;
 
+    /**
+     * The optional cache of resolved values, or {@code null}.
+     */
+    private final ConfigValueCache valueCache;
+
+    /**
+     * Flag, if the key index of the context can be used for single key evaluation.
+     */
+    private final boolean indexSupported;
+
+    /**
+     * The pool used for evaluating {@link #getProperties()} in parallel, or {@code null}.
+     */
+    private final ForkJoinPool parallelPool;
+
+    /**
+     * The cache of the values read by the primitive accessors, if the value cache is disabled, or {@code null}.
+     */
+    private final ConfigValueCache primitiveCache;
+
+    /**
+     * The values parsed by the primitive accessors, if no values can be cached for the context, key -&gt; parsed
+     * value, one map per primitive type.
+     */
+    private final Map<String, ParsedValue> intValues = new ConcurrentHashMap<>();
+    private final Map<String, ParsedValue> longValues = new ConcurrentHashMap<>();
+    private final Map<String, ParsedValue> doubleValues = new ConcurrentHashMap<>();
+    private final Map<String, ParsedValue> booleanValues = new ConcurrentHashMap<>();
+
 
     private ConfigValueEvaluator loadConfigValueEvaluator() {
         ConfigValueEvaluator eval = null;
@@ -67,8 +115,89 @@ public class DefaultConfiguration implements Configuration {
      * @param configurationContext The configuration Context to be used.
      */
     public DefaultConfiguration(ConfigurationContext configurationContext){
+        this(configurationContext, isValueCacheEnabled());
+    }
+
+    /**
+     * Constructor.
+     * @param configurationContext The configuration Context to be used.
+     * @param cacheValues if true, values resolved by {@link #get(String, TypeLiteral)} are cached until one of
+     *                    the underlying property sources changes the corresponding key, as detected by the versions
+     *                    and change notifications of the property sources. Caching is only enabled, if none of the
+     *                    property sources has {@link ChangeSupport#UNSUPPORTED} change support. Cached values are
+     *                    shared between callers and should not be modified.
+     */
+    public DefaultConfiguration(ConfigurationContext configurationContext, boolean cacheValues){
+        this(configurationContext, cacheValues, getDefaultParallelPool());
+    }
+
+    /**
+     * Constructor.
+     * @param configurationContext The configuration Context to be used.
+     * @param cacheValues if true, values resolved by {@link #get(String, TypeLiteral)} are cached, see
+     *                    {@link #DefaultConfiguration(ConfigurationContext, boolean)}.
+     * @param parallelPool the pool used by {@link #getProperties()} for accessing the property sources
+     *                     concurrently and for filtering larger property sets in parallel, or {@code null} for
+     *                     sequential evaluation. Property sources and filters must support concurrent access.
+     */
+    public DefaultConfiguration(ConfigurationContext configurationContext, boolean cacheValues,
+                                ForkJoinPool parallelPool){
         this.configurationContext = Objects.requireNonNull(configurationContext);
+        this.parallelPool = parallelPool;
         this.configEvaluator = loadConfigValueEvaluator();
+        this.valueCache = cacheValues?ConfigValueCache.of(configurationContext):null;
+        this.primitiveCache = valueCache==null?ConfigValueCache.of(configurationContext, Level.FINE):null;
+        this.indexSupported = configurationContext instanceof DefaultConfigurationContext
+                && configEvaluator.getClass()==DefaultConfigValueEvaluator.class
+                && !((DefaultConfigValueEvaluator)configEvaluator).isShortCircuit();
+    }
+
+    /**
+     * Evaluates if value caching is enabled by default, by reading the {@code tamaya.cache.enabled}
+     * system/environment property.
+     * @return true, if caching is enabled.
+     */
+    private static boolean isValueCacheEnabled() {
+        String value = System.getProperty("tamaya.cache.enabled");
+        if(value==null){
+            value = System.getenv("tamaya.cache.enabled");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Evaluates the pool used for parallel evaluation of {@link #getProperties()} by default, by reading the
+     * {@code tamaya.evaluation.parallel} system/environment property. The value {@code true} selects the
+     * common pool, a positive number the parallelism of a pool shared by all instances.
+     * @return the pool, or {@code null} for sequential evaluation.
+     */
+    private static ForkJoinPool getDefaultParallelPool() {
+        String value = System.getProperty("tamaya.evaluation.parallel");
+        if(value==null){
+            value = System.getenv("tamaya.evaluation.parallel");
+        }
+        if(value==null || value.trim().isEmpty() || "false".equalsIgnoreCase(value.trim())){
+            return null;
+        }
+        if("true".equalsIgnoreCase(value.trim())){
+            return ForkJoinPool.commonPool();
+        }
+        try{
+            return getSharedParallelPool(Integer.parseInt(value.trim()));
+        }catch(Exception e){
+            LOG.log(Level.WARNING, "Invalid tamaya.evaluation.parallel value, using sequential evaluation: " + value, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get the pool shared by all instances using the given parallelism. The pool is created on first access.
+     * @param parallelism the parallelism, a positive number.
+     * @return the pool, never null.
+     * @throws IllegalArgumentException if the parallelism is not positive.
+     */
+    static ForkJoinPool getSharedParallelPool(int parallelism) {
+        return SHARED_PARALLEL_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
     }
 
     /**
@@ -80,6 +209,10 @@ public class DefaultConfiguration implements Configuration {
     public String get(String key) {
         Objects.requireNonNull(key, "Key must not be null.");
 
+        ConfigurationIndex.Entry entry = getIndexEntry(key);
+        if(entry!=null){
+            return entry.getValue()!=null?entry.getValue().getValue():null;
+        }
         PropertyValue value = configEvaluator.evaluateRawValue(key, configurationContext);
         if(value==null || value.getValue()==null){
             return null;
@@ -99,6 +232,11 @@ public class DefaultConfiguration implements Configuration {
     public List<PropertyValue> getValues(String key) {
         Objects.requireNonNull(key, "Key must not be null.");
 
+        ConfigurationIndex.Entry entry = getIndexEntry(key);
+        if(entry!=null){
+            return entry.getValues();
+        }
+
         List<PropertyValue> value = configEvaluator.evaluateAllValues(key, configurationContext);
         if(value==null || value.isEmpty()){
             return Collections.emptyList();
@@ -111,6 +249,21 @@ public class DefaultConfiguration implements Configuration {
     }
 
 
+    /**
+     * Get the entry of the context's key index, if indexing is enabled.
+     * @param key the key, not null.
+     * @return the index entry, or {@code null}, if the key must be evaluated.
+     */
+    private ConfigurationIndex.Entry getIndexEntry(String key) {
+        if(indexSupported){
+            ConfigurationIndex index = ((DefaultConfigurationContext)configurationContext).getIndex();
+            if(index!=null){
+                return index.get(key);
+            }
+        }
+        return null;
+    }
+
     /**
      * Evaluates the raw value.
      * @param key the key, not null.
@@ -146,6 +299,19 @@ public class DefaultConfiguration implements Configuration {
         return val;
     }
 
+    /**
+     * Evaluates the raw values of all keys, in parallel, if a parallel pool is configured and the default evaluator
+     * is used. Subclasses of the default evaluator may override the evaluation, so they are called as any other
+     * evaluator.
+     * @return the raw values, key -&gt; value.
+     */
+    private Map<String, PropertyValue> evaluateRawValues(){
+        if(parallelPool!=null && configEvaluator.getClass()==DefaultConfigValueEvaluator.class){
+            return ((DefaultConfigValueEvaluator)configEvaluator).evaluateRawValues(configurationContext, parallelPool);
+        }
+        return configEvaluator.evaluateRawValues(configurationContext);
+    }
+
     /**
      * Get the current properties, composed by the loaded {@link PropertySource} and filtered
      * by registered {@link org.apache.tamaya.spi.PropertyFilter}.
@@ -154,9 +320,8 @@ public class DefaultConfiguration implements Configuration {
      */
     @Override
     public Map<String, String> getProperties() {
-        Map<String, PropertyValue> filtered = PropertyFiltering.applyFilters(
-                configEvaluator.evaluateRawValues(configurationContext),
-                configurationContext);
+        Map<String, PropertyValue> rawValues = evaluateRawValues();
+        Map<String, PropertyValue> filtered = PropertyFiltering.applyFilters(rawValues, configurationContext, parallelPool);
         Map<String,String> result = new HashMap<>();
         for(PropertyValue val:filtered.values()){
             if(val.getValue()!=null) {
@@ -166,6 +331,115 @@ public class DefaultConfiguration implements Configuration {
         return result;
     }
 
+    /**
+     * Get the current properties with the given key prefix. The result is the same as selecting the matching keys
+     * from {@link #getProperties()}: the matching values are filtered with all properties available in their
+     * {@link FilterContext}, the other properties are not filtered. If the key index of the context is enabled, the
+     * matching keys are read from the sorted index, the other properties are looked up in the index only, if
+     * accessed by a filter.
+     * @param prefix the key prefix, not {@code null}.
+     * @return the matching properties.
+     */
+    @Override
+    public Map<String, String> getProperties(String prefix) {
+        Objects.requireNonNull(prefix);
+        Map<String, String> result = new HashMap<>();
+        ConfigurationIndex index = indexSupported?((DefaultConfigurationContext)configurationContext).getIndex():null;
+        if(index!=null){
+            Map<String, PropertyValue> configEntries = index.getRawValues();
+            index.forEach(prefix, (key, entry) -> {
+                if(entry.getRawValue()!=null){
+                    PropertyValue filtered = PropertyFiltering.applyFilter(entry.getRawValue(), configEntries,
+                            configurationContext);
+                    if(filtered!=null && filtered.getValue()!=null && filtered.getKey().startsWith(prefix)){
+                        result.put(filtered.getKey(), filtered.getValue());
+                    }
+                }
+            });
+            return result;
+        }
+        Map<String, PropertyValue> rawValues = evaluateRawValues();
+        for(PropertyValue val:PropertyFiltering.applyFilters(rawValues, prefix, configurationContext).values()){
+            if(val.getValue()!=null && val.getKey().startsWith(prefix)) {
+                result.put(val.getKey(), val.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes all properties to the consumer without materializing the filtered property map. The properties passed
+     * are the same as returned by {@link #getProperties()}, so each entry is filtered with all raw configuration
+     * entries available in its {@link FilterContext}:
+     * <ul>
+     *     <li>If the key index of the context is enabled, the entries are read from the index, which also serves
+     *     the raw configuration entries to the filters.</li>
+     *     <li>Otherwise, if filters are registered, the raw values are evaluated once and the entries are filtered
+     *     and passed one by one.</li>
+     *     <li>Otherwise the property sources are walked from the most significant to the least significant one,
+     *     passing each entry not overridden by a more significant property source.</li>
+     * </ul>
+     * If a custom {@link ConfigValueEvaluator} is configured, the properties are evaluated by {@link #getProperties()}.
+     * @param consumer the consumer, called with key and value of each property, not {@code null}.
+     */
+    @Override
+    public void forEach(BiConsumer<String, String> consumer) {
+        Objects.requireNonNull(consumer);
+        if(configEvaluator.getClass()!=DefaultConfigValueEvaluator.class){
+            Configuration.super.forEach(consumer);
+            return;
+        }
+        ConfigurationIndex index = indexSupported?((DefaultConfigurationContext)configurationContext).getIndex():null;
+        if(index!=null){
+            Map<String, PropertyValue> configEntries = index.getRawValues();
+            index.forEach("", (key, entry) -> {
+                if(entry.getRawValue()!=null){
+                    accept(PropertyFiltering.applyFilter(entry.getRawValue(), configEntries, configurationContext),
+                            consumer);
+                }
+            });
+            return;
+        }
+        if(!configurationContext.getPropertyFilters().isEmpty()){
+            Map<String, PropertyValue> configEntries = FilterContext.createConfigEntries(
+                    configEvaluator.evaluateRawValues(configurationContext));
+            for(PropertyValue val:configEntries.values()){
+                accept(PropertyFiltering.applyFilter(val, configEntries, configurationContext), consumer);
+            }
+            return;
+        }
+        List<PropertySource> propertySources = configurationContext.getPropertySources();
+        List<Map<String, PropertyValue>> overriding = new ArrayList<>(propertySources.size());
+        for(int i = propertySources.size() - 1; i >= 0; i--) {
+            Map<String, PropertyValue> properties = propertySources.get(i).getProperties();
+            for(PropertyValue val : properties.values()) {
+                if(!isPresent(val) || isOverridden(val.getKey(), overriding)) {
+                    continue;
+                }
+                accept(PropertyFiltering.applyFilter(val, configurationContext), consumer);
+            }
+            overriding.add(properties);
+        }
+    }
+
+    private static void accept(PropertyValue filtered, BiConsumer<String, String> consumer) {
+        if(filtered != null && filtered.getValue() != null) {
+            consumer.accept(filtered.getKey(), filtered.getValue());
+        }
+    }
+
+    private static boolean isPresent(PropertyValue val) {
+        return val != null && (val.getValueType() != PropertyValue.ValueType.VALUE || val.getValue() != null);
+    }
+
+    private static boolean isOverridden(String key, List<Map<String, PropertyValue>> overriding) {
+        for(Map<String, PropertyValue> properties : overriding) {
+            if(isPresent(properties.get(key))) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Accesses the current String createValue for the given key and tries to convert it
@@ -194,14 +468,106 @@ public class DefaultConfiguration implements Configuration {
      * @param <T>  the createValue type
      * @return the converted createValue, never {@code null}.
      */
+    @SuppressWarnings("unchecked")
     @Override
     public <T> T get(String key, TypeLiteral<T> type) {
         Objects.requireNonNull(key, "Key must not be null.");
         Objects.requireNonNull(type, "Target type must not be null");
 
+        if(valueCache!=null){
+            return getCached(valueCache, key, type);
+        }
         return convertValue(key, getValues(key), type);
     }
 
+    /**
+     * Get a converted value using the given cache, evaluating and caching it, if not cached yet.
+     * @param cache the cache, not null.
+     * @param key the key, not null.
+     * @param type the target type, not null.
+     * @param <T> the target type
+     * @return the converted value, or {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCached(ConfigValueCache cache, String key, TypeLiteral<T> type) {
+        Object cached = cache.get(key, type);
+        if(cached!=null){
+            return cached==ConfigValueCache.NULL_VALUE?null:(T)cached;
+        }
+        long stamp = cache.getStamp();
+        T value = convertValue(key, getValues(key), type);
+        cache.put(key, type, value, stamp);
+        return value;
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        Object value = getPrimitiveValue(key, INTEGER_TYPE, intValues);
+        return value==null?defaultValue:((Number)value).intValue();
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Object value = getPrimitiveValue(key, LONG_TYPE, longValues);
+        return value==null?defaultValue:((Number)value).longValue();
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        Object value = getPrimitiveValue(key, DOUBLE_TYPE, doubleValues);
+        return value==null?defaultValue:((Number)value).doubleValue();
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = getPrimitiveValue(key, BOOLEAN_TYPE, booleanValues);
+        return value==null?defaultValue:(Boolean)value;
+    }
+
+    /**
+     * Evaluates the converted value for one of the primitive accessors. The converted values are cached, until the
+     * versions and change notifications of the property sources indicate a change of the key, as done by the value
+     * cache, so reading a cached value neither evaluates the property sources nor allocates. If the value cache is
+     * enabled, it is used, otherwise a separate cache for the primitive accessors. If the values of the context
+     * cannot be cached, because a property source has {@link ChangeSupport#UNSUPPORTED} change support, the values
+     * of the key are evaluated on each call, but the converted value is kept along with the filtered String value
+     * it was converted from, so the conversion is only performed again, if the String value has changed.
+     * Conversion itself uses the {@link PropertyConverter} instances of the context, as with
+     * {@link #get(String, TypeLiteral)}.
+     * @param key the key, not null.
+     * @param type the boxed target type, not null.
+     * @param parsedValues the parsed values of the target type, not null.
+     * @return the converted value, or {@code null}, if no value is present.
+     */
+    private Object getPrimitiveValue(String key, TypeLiteral<?> type, Map<String, ParsedValue> parsedValues) {
+        Objects.requireNonNull(key, "Key must not be null.");
+        if(valueCache!=null){
+            return getCached(valueCache, key, type);
+        }
+        if(primitiveCache!=null){
+            return getCached(primitiveCache, key, type);
+        }
+        List<PropertyValue> values = getValues(key);
+        String value = values==null || values.isEmpty()?null:values.get(0).getValue();
+        if(value==null){
+            parsedValues.remove(key);
+            return null;
+        }
+        ParsedValue parsed = parsedValues.get(key);
+        if(parsed!=null && parsed.value.equals(value)){
+            return parsed.converted;
+        }
+        Object converted = convertValue(key, values, type);
+        if(converted==null){
+            parsedValues.remove(key);
+            return null;
+        }
+        if(parsed!=null || parsedValues.size()<MAX_PARSED_VALUES){
+            parsedValues.put(key, new ParsedValue(value, converted));
+        }
+        return converted;
+    }
+
     @SuppressWarnings("unchecked")
 	protected <T> T convertValue(String key, List<PropertyValue> values, TypeLiteral<T> type) {
         if (values != null && !values.isEmpty()) {
@@ -287,4 +653,17 @@ public class DefaultConfiguration implements Configuration {
                 configurationContext +
                 '}';
     }
+
+    /**
+     * A primitive value converted, along with the String value it was converted from.
+     */
+    private static final class ParsedValue{
+        private final String value;
+        private final Object converted;
+
+        ParsedValue(String value, Object converted){
+            this.value = value;
+            this.converted = converted;
+        }
+    }
 }
@@ -49,6 +49,11 @@ public class DefaultConfigurationContext implements ConfigurationContext {
      */
     private List<PropertyFilter> immutablePropertyFilters;
 
+    /**
+     * The dispatch index of the filters, based on the key prefixes declared.
+     */
+    private PropertyFilterIndex filterIndex;
+
     /** The corresponding classLoader for this instance. */
     private ServiceContext serviceContext;
 
@@ -58,9 +63,19 @@ public class DefaultConfigurationContext implements ConfigurationContext {
      */
     private final ReentrantReadWriteLock propertySourceLock = new ReentrantReadWriteLock();
 
+    /** Flag, if a flattened key index should be used. */
+    private final boolean indexed;
+
+    /** The flattened key index, created on first access. */
+    private volatile ConfigurationIndex index;
+
+    /** Flag, if the index has been evaluated. */
+    private volatile boolean indexEvaluated;
+
     @SuppressWarnings("unchecked")
 	protected DefaultConfigurationContext(DefaultConfigurationBuilder builder) {
         this.serviceContext = builder.serviceContext;
+        this.indexed = isIndexEnabled();
         this.metaDataProvider = Objects.requireNonNull(builder.metaDataProvider);
         this.metaDataProvider.init(this);
         propertyConverterManager = new PropertyConverterManager(serviceContext);
@@ -73,6 +88,7 @@ public class DefaultConfigurationContext implements ConfigurationContext {
         // as next step we pick up the PropertyFilters pretty much the same way
         List<PropertyFilter> propertyFilters = new ArrayList<>(builder.getPropertyFilters());
         immutablePropertyFilters = Collections.unmodifiableList(propertyFilters);
+        filterIndex = PropertyFilterIndex.of(immutablePropertyFilters);
 
         // Finally add the converters
         for(Map.Entry<TypeLiteral<?>, List<PropertyConverter<?>>> en:builder.getPropertyConverter().entrySet()) {
@@ -88,8 +104,30 @@ public class DefaultConfigurationContext implements ConfigurationContext {
                                        List<PropertyFilter> propertyFilters, List<PropertySource> propertySources,
                                        Map<TypeLiteral<?>, List<PropertyConverter<?>>> propertyConverters,
                                        MetadataProvider metaDataProvider) {
+        this(serviceContext, propertyFilters, propertySources, propertyConverters, metaDataProvider,
+                isIndexEnabled());
+    }
+
+    /**
+     * Creates a new context.
+     * @param serviceContext the service context, not null.
+     * @param propertyFilters the filters, not null.
+     * @param propertySources the property sources, in order of significance (highest last), not null.
+     * @param propertyConverters the converters, not null.
+     * @param metaDataProvider the metadata provider, not null.
+     * @param indexed if true, a flattened and pre-filtered index of all keys is built on first access, so single
+     *                key lookups do not have to evaluate all property sources and filters. The index is only
+     *                used, if all property sources are scannable and {@link ChangeSupport#IMMUTABLE} or
+     *                {@link ChangeSupport#SUPPORTED}.
+     */
+    public DefaultConfigurationContext(ServiceContext serviceContext,
+                                       List<PropertyFilter> propertyFilters, List<PropertySource> propertySources,
+                                       Map<TypeLiteral<?>, List<PropertyConverter<?>>> propertyConverters,
+                                       MetadataProvider metaDataProvider, boolean indexed) {
         this.serviceContext = Objects.requireNonNull(serviceContext);
+        this.indexed = indexed;
         this.immutablePropertyFilters = Collections.unmodifiableList(new ArrayList<>(propertyFilters));
+        this.filterIndex = PropertyFilterIndex.of(immutablePropertyFilters);
         this.immutablePropertySources = Collections.unmodifiableList(new ArrayList<>(propertySources));
         this.metaDataProvider = Objects.requireNonNull(metaDataProvider);
         this.metaDataProvider.init(this);
@@ -102,6 +140,38 @@ public class DefaultConfigurationContext implements ConfigurationContext {
     }
 
 
+    /**
+     * Evaluates if indexing is enabled by default, by reading the {@code tamaya.index.enabled}
+     * system/environment property.
+     * @return true, if indexing is enabled.
+     */
+    private static boolean isIndexEnabled() {
+        String value = System.getProperty("tamaya.index.enabled");
+        if(value==null){
+            value = System.getenv("tamaya.index.enabled");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Access the flattened key index of this context. The index is created on first access.
+     * @return the index, or {@code null}, if indexing is disabled or not possible for this context.
+     */
+    ConfigurationIndex getIndex() {
+        if(!indexed){
+            return null;
+        }
+        if(!indexEvaluated){
+            synchronized (this){
+                if(!indexEvaluated){
+                    index = ConfigurationIndex.of(this);
+                    indexEvaluated = true;
+                }
+            }
+        }
+        return index;
+    }
+
     @Override
     public Map<String,String> getMetaData(String key) {
         return metaDataProvider.getMetaData(key);
@@ -263,4 +333,14 @@ public class DefaultConfigurationContext implements ConfigurationContext {
         return immutablePropertyFilters;
     }
 
+    /**
+     * Get the filters to be applied to the given key, based on the key prefixes declared by the filters.
+     * @param key the key, not null.
+     * @return the filters, in order of evaluation, never null.
+     * @see PropertyFilter#getKeyPrefixes()
+     */
+    List<PropertyFilter> getPropertyFilters(String key) {
+        return filterIndex.getFilters(key);
+    }
+
 }
@@ -18,25 +18,39 @@
  */
 package org.apache.tamaya.spisupport;
 
+import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationSnapshot;
 import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConversionContext;
 import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertyValue;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * /**
  * Configuration implementation that stores all current values of a given (possibly dynamic, contextual and non server
  * capable instance) and is fully serializable. Note that hereby only the scannable key/createValue pairs are considered.
+ * <p>
+ * Optionally the snapshot can be created <i>flat</i>: the values are then merged and filtered once when the snapshot
+ * is created, hereby the filters are applied as done by {@link Configuration#getProperties()}. Reading a value is a
+ * single lookup in the resulting table, converted values are cached per target type. Flat snapshots can also be
+ * enabled by setting the {@code tamaya.snapshot.flat} system/environment property to {@code true}.
+ * </p>
  */
 public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Logger LOG = Logger.getLogger(DefaultConfigurationSnapshot.class.getName());
+
     /**
      * The properties frozen.
      */
@@ -44,7 +58,12 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
     private long frozenAt = System.nanoTime();
     private UUID id = UUID.randomUUID();
     private transient ConfigurationContext context;
-    private Set<String> keys = new HashSet<>();
+    /** The keys, evaluated lazily if null. */
+    private volatile Set<String> keys = new HashSet<>();
+    /** The merged and filtered values, if the snapshot is flat, else null. */
+    private Map<String, String> flatValues;
+    /** The converted values of a flat snapshot, by target type. */
+    private transient volatile Map<TypeLiteral<?>, Map<String, Object>> typedValues;
 
     /**
      * Constructor.
@@ -53,6 +72,17 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
      * @param keys The keys to evaluate, not null.
      */
     public DefaultConfigurationSnapshot(Configuration config, Iterable<String> keys) {
+        this(config, keys, isFlatEnabled());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config The base configuration.
+     * @param keys The keys to evaluate, not null.
+     * @param flat if true, all values are merged and filtered once into a flat table, serving all reads.
+     */
+    public DefaultConfigurationSnapshot(Configuration config, Iterable<String> keys, boolean flat) {
         for(String k:keys) {
             this.keys.add(k);
         }
@@ -66,10 +96,14 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
                 ctx.getPropertyConverters(),
                 metadataProvider);
         this.snapshot = new DefaultConfiguration(context);
+        Map<String, String> properties = flat || this.keys.isEmpty()?this.snapshot.getProperties():null;
         if(this.keys.isEmpty()){
-            this.keys.addAll(this.snapshot.getProperties().keySet());
+            this.keys.addAll(properties.keySet());
         }
         this.keys = Collections.unmodifiableSet(this.keys);
+        if(flat){
+            initFlatValues(properties);
+        }
     }
 
     /**
@@ -78,17 +112,138 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
      * @param config The base configuration.
      */
     public DefaultConfigurationSnapshot(Configuration config) {
+        this(config, isFlatEnabled());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config The base configuration.
+     * @param flat if true, all values are merged and filtered once into a flat table, serving all reads.
+     */
+    public DefaultConfigurationSnapshot(Configuration config, boolean flat) {
         ConfigurationContext ctx = config.getContext();
         MetadataProvider metadataProvider = ctx.getServiceContext().getService(MetadataProvider.class,
                 DefaultMetaDataProvider::new);
         context = new DefaultConfigurationContext(ctx.getServiceContext(),
                 ctx.getPropertyFilters(),
                 ctx.getPropertySources().stream()
-                        .map(ps -> new DefaultPropertySourceSnapshot(ps)).collect(Collectors.toList()),
+                        .map(DefaultPropertySourceSnapshot::of).collect(Collectors.toList()),
                 ctx.getPropertyConverters(),
                 metadataProvider);
         this.snapshot = new DefaultConfiguration(context);
-        this.keys = Collections.unmodifiableSet(this.snapshot.getProperties().keySet());
+        // the keys are evaluated lazily, so unchanged property source snapshots are shared without evaluating them.
+        this.keys = null;
+        if(flat){
+            Map<String, String> properties = this.snapshot.getProperties();
+            this.keys = Collections.unmodifiableSet(properties.keySet());
+            initFlatValues(properties);
+        }
+    }
+
+    /**
+     * Constructor used for snapshots read by {@link SnapshotCodec}.
+     *
+     * @param config The configuration, whose property sources are snapshots already.
+     * @param flat if true, all values are merged and filtered once into a flat table, serving all reads.
+     * @param id the snapshot's id, not null.
+     * @param frozenAt the snapshot's timestamp.
+     */
+    DefaultConfigurationSnapshot(Configuration config, boolean flat, UUID id, long frozenAt) {
+        this(config, flat);
+        this.id = Objects.requireNonNull(id);
+        this.frozenAt = frozenAt;
+    }
+
+    /**
+     * Evaluates if flat snapshots are enabled by default, by reading the {@code tamaya.snapshot.flat}
+     * system/environment property.
+     * @return true, if flat snapshots are enabled.
+     */
+    private static boolean isFlatEnabled() {
+        String value = System.getProperty("tamaya.snapshot.flat");
+        if(value==null){
+            value = System.getenv("tamaya.snapshot.flat");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private void initFlatValues(Map<String, String> properties) {
+        this.flatValues = Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+
+    /**
+     * Checks, if this snapshot is flat.
+     * @return true, if all values have been merged and filtered when the snapshot was created.
+     */
+    public boolean isFlat() {
+        return flatValues!=null;
+    }
+
+    /**
+     * Get the converted value of a flat snapshot, using the cache of converted values.
+     * @param key the key, not null.
+     * @param type the target type, not null.
+     * @return the converted value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getFlat(String key, TypeLiteral<T> type) {
+        Objects.requireNonNull(key, "Key must not be null.");
+        Objects.requireNonNull(type, "Target type must not be null");
+        if(!flatValues.containsKey(key)){
+            return null;
+        }
+        Map<TypeLiteral<?>, Map<String, Object>> typed = typedValues;
+        if(typed==null){
+            synchronized (this){
+                if(typedValues==null){
+                    typedValues = new ConcurrentHashMap<>();
+                }
+                typed = typedValues;
+            }
+        }
+        Map<String, Object> values = typed.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        Object value = values.get(key);
+        if(value==null){
+            value = convertFlat(key, flatValues.get(key), type);
+            if(value!=null){
+                values.put(key, value);
+            }
+        }
+        return (T)value;
+    }
+
+    /**
+     * Converts a value of a flat snapshot using the {@link PropertyConverter} instances of the context. The value
+     * is already filtered, so the property sources are not evaluated again.
+     * @param key the key, not null.
+     * @param value the filtered value, or null.
+     * @param type the target type, not null.
+     * @return the converted value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T convertFlat(String key, String value, TypeLiteral<T> type) {
+        if(value==null){
+            return null;
+        }
+        ConversionContext conversionContext = new ConversionContext.Builder(this, key, type)
+                .setValues(PropertyValue.createValue(key, value))
+                .build();
+        for(PropertyConverter<T> converter:getContext().getPropertyConverters(type)){
+            try{
+                T t = converter.convert(value, conversionContext);
+                if(t!=null){
+                    return t;
+                }
+            }catch(Exception e){
+                LOG.log(Level.FINEST, "PropertyConverter: " + converter + " failed to convert value: " + value, e);
+            }
+        }
+        if(type.equals(TypeLiteral.of(String.class))){
+            return (T)value;
+        }
+        throw new ConfigException("Unparseable config value for type: " + type.getRawType().getName() + ": " + key +
+                ", supported formats: " + conversionContext.getSupportedFormats());
     }
 
 
@@ -102,27 +257,46 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
      * @return the keys, not null.
      */
     public Set<String> getKeys() {
-        return keys;
+        Set<String> result = keys;
+        if(result==null){
+            result = Collections.unmodifiableSet(snapshot.getProperties().keySet());
+            keys = result;
+        }
+        return result;
     }
 
     @Override
     public String get(String key) {
+        if(flatValues!=null){
+            return flatValues.get(Objects.requireNonNull(key, "Key must not be null."));
+        }
         return this.snapshot.get(key);
     }
 
     @Override
     public String getOrDefault(String key, String defaultValue) {
+        if(flatValues!=null){
+            String value = get(key);
+            return value!=null?value:defaultValue;
+        }
         return this.snapshot.getOrDefault(key, defaultValue);
     }
 
     @Override
     public <T> T getOrDefault(String key, Class<T> type, T defaultValue) {
+        if(flatValues!=null){
+            T value = getFlat(key, TypeLiteral.of(type));
+            return value!=null?value:defaultValue;
+        }
         return this.snapshot.getOrDefault(key, type, defaultValue);
     }
 
     @SuppressWarnings("unchecked")
 	@Override
     public <T> T get(String key, Class<T> type) {
+        if(flatValues!=null){
+            return getFlat(key, TypeLiteral.of(type));
+        }
         return snapshot.get(key, type);
     }
 
@@ -139,16 +313,26 @@ public class DefaultConfigurationSnapshot implements ConfigurationSnapshot, Seri
      */
     @Override
     public <T> T get(String key, TypeLiteral<T> type) {
+        if(flatValues!=null){
+            return getFlat(key, type);
+        }
         return snapshot.get(key, type);
     }
 
     @Override
     public <T> T getOrDefault(String key, TypeLiteral<T> type, T defaultValue) {
+        if(flatValues!=null){
+            T value = getFlat(key, type);
+            return value!=null?value:defaultValue;
+        }
         return snapshot.getOrDefault(key, type, defaultValue);
     }
 
     @Override
     public Map<String, String> getProperties() {
+        if(flatValues!=null){
+            return flatValues;
+        }
         return snapshot.getProperties();
     }
 
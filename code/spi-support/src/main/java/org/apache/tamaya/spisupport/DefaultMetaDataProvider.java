@@ -18,90 +18,180 @@
  */
 package org.apache.tamaya.spisupport;
 
+import org.apache.tamaya.spi.ChangeSupport;
 import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 
 /**
  * Default metadata provider implementation, which searches for all kind of entries
  * formatted as {@code [(META)key].metaKey=metaValue}. All matching key/values are added to the
  * meta data map for the given key as {@code metaKey=metaValue} meta entries.
+ * <p>
+ * The metadata of all keys is kept in an index, which is built on first access. Property sources supporting change
+ * notification are tracked with a change listener, hereby only the metadata of keys affected by a change is
+ * re-evaluated. Metadata of other property sources is read once. Reading the metadata of a key is a single lookup
+ * and can be done concurrently with updates. The change listeners only hold a weak reference to the provider, so
+ * long-lived property sources do not keep providers reachable. Calling {@link #init(ConfigurationContext)} again
+ * discards the metadata read from the previous context and unregisters its listeners, metadata added manually is
+ * kept.
+ * </p>
  */
 public class DefaultMetaDataProvider implements MetadataProvider {
 
     private static final Logger LOG = Logger.getLogger(DefaultMetaDataProvider.class.getName());
     private static final String META_PREFIX = "[(META)";
+    private static final String UNKNOWN_VERSION = "N/A";
+    private static final ReferenceQueue<DefaultMetaDataProvider> COLLECTED = new ReferenceQueue<>();
     private ConfigurationContext context;
     private Map<String, Map<String, String>> additionalProperties = new ConcurrentHashMap<>();
-    private AtomicLong lastHash = new AtomicLong();
-    private Map<String, Map<String, String>> propertyCache = new HashMap<>();
+    /** The metadata read from each property source, in order of the property sources. */
+    private final Map<PropertySource, SourceMetaData> sourceMetaData = new LinkedHashMap<>();
+    /** The merged, unmodifiable metadata per key. */
+    private final Map<String, Map<String, String>> index = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    /** The change listener registered with the property sources of the current context, or null. */
+    private Listener changeListener;
 
     @Override
-    public MetadataProvider init(ConfigurationContext context) {
-        this.context = Objects.requireNonNull(context);
+    public synchronized MetadataProvider init(ConfigurationContext context) {
+        Objects.requireNonNull(context);
+        if(changeListener!=null){
+            changeListener.unregister();
+            changeListener = null;
+        }
+        this.context = context;
+        this.loaded = false;
+        sourceMetaData.clear();
+        index.clear();
         return this;
     }
 
     @Override
     public Map<String, String> getMetaData(String property) {
-        long configHash = Objects.hash(context.getPropertySources().toArray());
-        if(configHash!=lastHash.get()){
-            lastHash.set(configHash);
-            propertyCache = loadMetaProperties();
+        if(!loaded){
+            load();
         }
-        Map<String, String> meta = propertyCache.get(property);
+        Map<String, String> meta = index.get(property);
         if(meta==null){
             return Collections.emptyMap();
         }
-        return Collections.unmodifiableMap(meta);
+        return meta;
     }
 
-    private Map<String, Map<String, String> > loadMetaProperties() {
-        Map<String, Map<String, String> > result = new HashMap<>();
+    /**
+     * Loads the metadata of all property sources and registers the change listeners.
+     */
+    private synchronized void load() {
+        if(loaded){
+            return;
+        }
+        purge();
+        changeListener = new Listener(this);
         for(PropertySource ps:context.getPropertySources()){
-            ps.getProperties().values().forEach(v -> {
-                Map<String, String> meta = result.computeIfAbsent(v.getKey(), k -> new HashMap<>());
-                meta.putAll(v.getMeta());
-                if(v.getQualifiedKey().toUpperCase(Locale.ENGLISH).startsWith(META_PREFIX)){
-                    loadExplicitMetadata(v);
-                }
-            });
+            if(ps.getChangeSupport()==ChangeSupport.SUPPORTED){
+                changeListener.register(ps);
+            }
+            sourceMetaData.put(ps, new SourceMetaData(ps));
         }
-        // Override with manual properties
-        for(Map.Entry<String,Map<String, String>> en: additionalProperties.entrySet()) {
-            Map<String, String> meta = result.get(en.getKey());
-            if(meta==null){
-                result.put(en.getKey(), new HashMap<>(en.getValue()));
-            }else {
-                meta.putAll(en.getValue());
+        Set<String> keys = new HashSet<>(additionalProperties.keySet());
+        for(SourceMetaData meta:sourceMetaData.values()){
+            keys.addAll(meta.values.keySet());
+            keys.addAll(meta.explicit.keySet());
+        }
+        merge(keys);
+        loaded = true;
+    }
+
+    /**
+     * Removes the listeners of the providers garbage collected.
+     */
+    private static void purge(){
+        Reference<? extends DefaultMetaDataProvider> ref;
+        while((ref = COLLECTED.poll())!=null){
+            ((Listener)ref).unregister();
+        }
+    }
+
+    /**
+     * Re-reads the metadata of a changed property source and re-evaluates the keys affected.
+     * @param propertySource the property source changed, not null.
+     * @param listener the listener notified, events of listeners of previous contexts are ignored.
+     */
+    private synchronized void update(PropertySource propertySource, Listener listener) {
+        SourceMetaData oldMeta = sourceMetaData.get(propertySource);
+        if(!loaded || oldMeta==null || listener!=changeListener){
+            return;
+        }
+        String version = propertySource.getVersion();
+        if(!UNKNOWN_VERSION.equals(version) && version.equals(oldMeta.version)){
+            return;
+        }
+        SourceMetaData newMeta = new SourceMetaData(propertySource);
+        sourceMetaData.put(propertySource, newMeta);
+        Set<String> keys = new HashSet<>();
+        addChangedKeys(oldMeta.values, newMeta.values, keys);
+        addChangedKeys(oldMeta.explicit, newMeta.explicit, keys);
+        merge(keys);
+    }
+
+    private static void addChangedKeys(Map<String, Map<String, String>> oldMeta,
+                                       Map<String, Map<String, String>> newMeta, Set<String> keys){
+        for(Map.Entry<String, Map<String, String>> en:oldMeta.entrySet()){
+            if(!en.getValue().equals(newMeta.get(en.getKey()))){
+                keys.add(en.getKey());
+            }
+        }
+        for(String key:newMeta.keySet()){
+            if(!oldMeta.containsKey(key)){
+                keys.add(key);
             }
         }
-        return Collections.unmodifiableMap(result);
     }
 
     /**
-     * Iterates all values and it's children and adds all meta-entries found in the configuration
-     * (entries starting with {@code [(META)}).
+     * Re-evaluates the merged metadata of the given keys. Metadata of the values is overridden by explicit metadata
+     * entries, which again are overridden by metadata added manually.
+     * @param keys the keys, not null.
      */
-    private void loadExplicitMetadata(PropertyValue value) {
-        String key = value.getQualifiedKey();
-        if(value.getValue()!=null){
-            String[] keyValue = getMetaKeys(key);
-            if(keyValue==null){
-                LOG.warning("Encountered invalid META-ENTRY: " + key);
-            }else {
-                Map<String, String> meta = additionalProperties.computeIfAbsent(keyValue[0], k -> new HashMap<>());
-                meta.put(keyValue[1], value.getValue());
+    private synchronized void merge(Collection<String> keys) {
+        for(String key:keys){
+            Map<String, String> meta = null;
+            for(SourceMetaData sourceMeta:sourceMetaData.values()){
+                meta = putAll(meta, sourceMeta.values.get(key));
             }
+            for(SourceMetaData sourceMeta:sourceMetaData.values()){
+                meta = putAll(meta, sourceMeta.explicit.get(key));
+            }
+            meta = putAll(meta, additionalProperties.get(key));
+            if(meta==null){
+                index.remove(key);
+            }else{
+                index.put(key, Collections.unmodifiableMap(meta));
+            }
+        }
+    }
+
+    private static Map<String, String> putAll(Map<String, String> meta, Map<String, String> entries){
+        if(entries==null){
+            return meta;
+        }
+        if(meta==null){
+            meta = new HashMap<>();
         }
+        meta.putAll(entries);
+        return meta;
     }
 
-    private String[] getMetaKeys(String fullKey) {
+    private static String[] getMetaKeys(String fullKey) {
         String strippedKey = fullKey.substring(META_PREFIX.length());
         int index = strippedKey.lastIndexOf(']');
         if(index<0){
@@ -122,8 +212,9 @@ public class DefaultMetaDataProvider implements MetadataProvider {
         Objects.requireNonNull(property, "property null");
         Objects.requireNonNull(key, "key null");
         Objects.requireNonNull(value, "value null");
-        additionalProperties.computeIfAbsent(property, p -> new HashMap<>())
+        additionalProperties.computeIfAbsent(property, p -> new ConcurrentHashMap<>())
             .put(key, value);
+        updateAdditional(Collections.singleton(property));
         return this;
     }
 
@@ -131,8 +222,9 @@ public class DefaultMetaDataProvider implements MetadataProvider {
     public MetadataProvider setMeta(String property, Map<String, String> metaData) {
         Objects.requireNonNull(property, "property null");
         Objects.requireNonNull(metaData, "metaData null");
-        additionalProperties.computeIfAbsent(property, p -> new HashMap<>())
+        additionalProperties.computeIfAbsent(property, p -> new ConcurrentHashMap<>())
                 .putAll(metaData);
+        updateAdditional(Collections.singleton(property));
         return this;
     }
 
@@ -140,15 +232,24 @@ public class DefaultMetaDataProvider implements MetadataProvider {
     public MetadataProvider reset(String property) {
         Objects.requireNonNull(property, "property null");
         additionalProperties.remove(property);
+        updateAdditional(Collections.singleton(property));
         return this;
     }
 
     @Override
     public MetadataProvider reset() {
+        Set<String> keys = new HashSet<>(additionalProperties.keySet());
         additionalProperties.clear();
+        updateAdditional(keys);
         return this;
     }
 
+    private synchronized void updateAdditional(Collection<String> keys) {
+        if(loaded){
+            merge(keys);
+        }
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]")
@@ -156,4 +257,81 @@ public class DefaultMetaDataProvider implements MetadataProvider {
                 .add("context = " + context)
                 .toString();
     }
+
+    /**
+     * Change listener only holding a weak reference to its provider.
+     */
+    private static final class Listener extends WeakReference<DefaultMetaDataProvider>
+            implements BiConsumer<Set<String>, PropertySource> {
+        private final List<WeakReference<PropertySource>> propertySources = new ArrayList<>();
+
+        Listener(DefaultMetaDataProvider provider){
+            super(provider, COLLECTED);
+        }
+
+        void register(PropertySource propertySource){
+            synchronized (propertySources){
+                propertySources.add(new WeakReference<>(propertySource));
+            }
+            propertySource.addChangeListener(this);
+        }
+
+        void unregister(){
+            synchronized (propertySources){
+                for(WeakReference<PropertySource> ref:propertySources){
+                    PropertySource ps = ref.get();
+                    if(ps!=null){
+                        ps.removeChangeListener(this);
+                    }
+                }
+                propertySources.clear();
+            }
+        }
+
+        @Override
+        public void accept(Set<String> keys, PropertySource propertySource) {
+            DefaultMetaDataProvider provider = get();
+            if(provider==null){
+                propertySource.removeChangeListener(this);
+            }else{
+                provider.update(propertySource, this);
+            }
+        }
+    }
+
+    /**
+     * The metadata read from a single property source.
+     */
+    private static final class SourceMetaData{
+        private final String version;
+        /** The metadata of the property values, by key. */
+        private final Map<String, Map<String, String>> values = new HashMap<>();
+        /** The metadata read from explicit {@code [(META)key].metaKey} entries, by key. */
+        private final Map<String, Map<String, String>> explicit = new HashMap<>();
+
+        SourceMetaData(PropertySource propertySource){
+            this.version = propertySource.getVersion();
+            for(PropertyValue v:propertySource.getProperties().values()){
+                values.computeIfAbsent(v.getKey(), k -> new HashMap<>()).putAll(v.getMeta());
+                if(v.getQualifiedKey().toUpperCase(Locale.ENGLISH).startsWith(META_PREFIX)){
+                    loadExplicitMetadata(v);
+                }
+            }
+        }
+
+        /**
+         * Adds the meta-entry of a value starting with {@code [(META)}.
+         */
+        private void loadExplicitMetadata(PropertyValue value) {
+            String key = value.getQualifiedKey();
+            if(value.getValue()!=null){
+                String[] keyValue = getMetaKeys(key);
+                if(keyValue==null){
+                    LOG.warning("Encountered invalid META-ENTRY: " + key);
+                }else {
+                    explicit.computeIfAbsent(keyValue[0], k -> new HashMap<>()).put(keyValue[1], value.getValue());
+                }
+            }
+        }
+    }
 }
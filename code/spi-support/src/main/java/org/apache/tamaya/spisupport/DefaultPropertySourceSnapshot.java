@@ -23,17 +23,27 @@ import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.logging.Logger;
 
 /**
  * PropertySource implementation that stores all current values of a given (possibly dynamic, contextual and non server
  * capable instance) and is fully serializable. Note that hereby only the scannable key/createValue pairs are considered.
+ * <p>Snapshots of all keys of a property source with {@link ChangeSupport#SUPPORTED change support} share their
+ * values with the previous snapshot of the same property source: the values are held in a persistent map, which
+ * is updated with the keys changed since the previous snapshot only, so successive snapshots share all unchanged
+ * entries.</p>
  */
 public class DefaultPropertySourceSnapshot implements PropertySource, Serializable {
     private static final long serialVersionUID = -6373137316556444171L;
     private static final int MAX_SYNCH_CHECKS = 10;
+    /** The version of property sources, which do not provide a version. */
+    private static final String UNKNOWN_VERSION = "N/A";
     private static final Logger LOG = Logger.getLogger(DefaultPropertySourceSnapshot.class.getName());
+    /** The state of the last snapshot taken, by property source. */
+    private static final Map<PropertySource, SharedState> SHARED_STATES =
+            Collections.synchronizedMap(new WeakHashMap<>());
 
     /**
      * The PropertySource's name.
@@ -48,6 +58,7 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
      */
     private Map<String, PropertyValue> properties = new HashMap<>();
 
+    /** The keys, or null, if all keys of the properties are contained. */
     private Set<String> keys = new HashSet<>();
 
     private long frozenAt = System.currentTimeMillis();
@@ -58,19 +69,26 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
      * @param propertySource The base PropertySource.
      */
     public DefaultPropertySourceSnapshot(PropertySource propertySource) {
-        this(propertySource, propertySource.getProperties().keySet());
+        this(propertySource, Collections.emptySet());
     }
 
     /**
      * Constructor.
      *
      * @param propertySource The base PropertySource.
-     * @param keys the keys to be added to the snapshot.
+     * @param keys the keys to be added to the snapshot. If empty, all keys are added.
      */
     public DefaultPropertySourceSnapshot(PropertySource propertySource, Iterable<String> keys) {
         for(String k:keys){
             this.keys.add(k);
         }
+        if(this.keys.isEmpty() && propertySource.getChangeSupport()==ChangeSupport.SUPPORTED){
+            this.keys = null;
+            this.ordinal = PropertySourceComparator.getOrdinal(propertySource);
+            this.name = propertySource.getName();
+            this.properties = SharedState.of(propertySource).update(propertySource);
+            return;
+        }
         if(this.keys.isEmpty()){
             this.keys.addAll(propertySource.getProperties().keySet());
         }
@@ -86,6 +104,22 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
         }
     }
 
+    /**
+     * Constructor used for snapshots read by {@link SnapshotCodec}.
+     *
+     * @param name the name, not null.
+     * @param ordinal the ordinal.
+     * @param frozenAt the creation timestamp.
+     * @param properties the properties, not null.
+     */
+    DefaultPropertySourceSnapshot(String name, int ordinal, long frozenAt, Map<String, PropertyValue> properties) {
+        this.name = name;
+        this.ordinal = ordinal;
+        this.frozenAt = frozenAt;
+        this.properties = Collections.unmodifiableMap(properties);
+        this.keys = null;
+    }
+
     private Map<String, PropertyValue> initProperties(PropertySource propertySource, boolean checkVersion) {
         Map<String, PropertyValue> properties = new HashMap<>();
         if(!checkVersion){
@@ -127,8 +161,7 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
      * @return the frozen property source.
      */
     public static DefaultPropertySourceSnapshot of(PropertySource propertySource) {
-        Set<String> keySet = propertySource.getProperties().keySet();
-        return DefaultPropertySourceSnapshot.of(propertySource, keySet);
+        return DefaultPropertySourceSnapshot.of(propertySource, Collections.emptySet());
     }
 
     /**
@@ -142,7 +175,7 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
     public static DefaultPropertySourceSnapshot of(PropertySource propertySource, Iterable<String> keys) {
         if (propertySource instanceof DefaultPropertySourceSnapshot) {
             DefaultPropertySourceSnapshot fps = (DefaultPropertySourceSnapshot) propertySource;
-            if(fps.getKeys().equals(keys)){
+            if(fps.getKeys().equals(keys) || (fps.keys==null && !keys.iterator().hasNext())){
                 return fps;
             }
         }
@@ -150,6 +183,9 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
     }
 
     public Set<String> getKeys() {
+        if(keys==null){
+            return Collections.unmodifiableSet(properties.keySet());
+        }
         return keys;
     }
 
@@ -180,6 +216,11 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
         return properties;
     }
 
+    @Override
+    public ChangeSupport getChangeSupport() {
+        return ChangeSupport.IMMUTABLE;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -208,4 +249,91 @@ public class DefaultPropertySourceSnapshot implements PropertySource, Serializab
                 ", frozenAt=" + frozenAt +
                 '}';
     }
+
+    /**
+     * The values of the last snapshot of all keys of a property source, which are updated with the keys changed
+     * since, as notified by the property source. Only the values of the keys notified are read, if the notification
+     * provides the version including these changes, see {@link PropertySourceChangeSupport.ChangedKeys}, and the
+     * current version of the property source equals it. Otherwise some change may not have been notified yet, e.g.
+     * because notifications are dispatched asynchronously, and all values are compared with the current values
+     * instead, still sharing all unchanged entries. If the version has not changed and no notification has been
+     * received, the values are not read at all.
+     */
+    private static final class SharedState {
+        private final WeakReference<PropertySource> source;
+        private final Set<String> changedKeys = new HashSet<>();
+        private PersistentHashMap<String, PropertyValue> values;
+        private String version;
+        /** The version including the changes of the last notification, or null, if not known. */
+        private String notifiedVersion;
+
+        private SharedState(PropertySource propertySource){
+            this.source = new WeakReference<>(propertySource);
+        }
+
+        /**
+         * Get the shared state of the given property source, registering it on first access.
+         * @param propertySource the property source, not null.
+         * @return the state, never null.
+         */
+        static SharedState of(PropertySource propertySource){
+            synchronized (SHARED_STATES){
+                SharedState state = SHARED_STATES.get(propertySource);
+                if(state!=null && state.source.get()==propertySource){
+                    return state;
+                }
+                SharedState newState = new SharedState(propertySource);
+                if(state==null){
+                    SHARED_STATES.put(propertySource, newState);
+                    // the listener must not reference the property source, which is the weak key.
+                    propertySource.addChangeListener((keys, ps) -> newState.changed(keys,
+                            keys instanceof PropertySourceChangeSupport.ChangedKeys?
+                                    ((PropertySourceChangeSupport.ChangedKeys)keys).getVersion():null));
+                }
+                // else an equal, but different property source is registered: do not share.
+                return newState;
+            }
+        }
+
+        private synchronized void changed(Set<String> keys, String version){
+            if(values!=null){
+                changedKeys.addAll(keys);
+                notifiedVersion = version;
+            }
+        }
+
+        /**
+         * Updates the values with the current values of the property source.
+         * @param propertySource the property source, not null.
+         * @return the current values, never null.
+         */
+        synchronized Map<String, PropertyValue> update(PropertySource propertySource){
+            // The version is read first, so a change in between is detected by the next update.
+            String currentVersion = propertySource.getVersion();
+            boolean versioned = currentVersion!=null && !UNKNOWN_VERSION.equals(currentVersion);
+            if(values==null){
+                values = PersistentHashMap.of(propertySource.getProperties());
+            }else if(!changedKeys.isEmpty() && versioned && currentVersion.equals(notifiedVersion)){
+                for(String key:changedKeys){
+                    PropertyValue value = propertySource.get(key);
+                    values = value==null?values.minus(key):values.plus(key, value);
+                }
+            }else if(!changedKeys.isEmpty() || !versioned || !currentVersion.equals(version)){
+                Map<String, PropertyValue> current = propertySource.getProperties();
+                PersistentHashMap<String, PropertyValue> result = values;
+                for(String key:values.keySet()){
+                    if(!current.containsKey(key)){
+                        result = result.minus(key);
+                    }
+                }
+                for(Map.Entry<String, PropertyValue> en:current.entrySet()){
+                    result = result.plus(en.getKey(), en.getValue());
+                }
+                values = result;
+            }
+            changedKeys.clear();
+            version = currentVersion;
+            return values;
+        }
+    }
 }
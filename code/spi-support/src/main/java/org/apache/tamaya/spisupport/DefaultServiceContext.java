@@ -23,6 +23,8 @@ import org.apache.tamaya.spi.ClassloaderAware;
 import org.apache.tamaya.spi.ServiceContext;
 
 import javax.annotation.Priority;
+import java.io.IOException;
+import java.net.URL;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -48,6 +50,10 @@ public final class DefaultServiceContext implements ServiceContext {
     private final Map<Class<?>, Object> singletons = new ConcurrentHashMap<>();
     @SuppressWarnings("rawtypes")
 	private Map<Class, Class> factoryTypes = new ConcurrentHashMap<>();
+    /**
+     * The service indices, by the URL of the classpath entry containing them, loaded lazily.
+     */
+    private volatile Map<String, ServiceIndex> serviceIndices;
 
     @Override
     public <T> T getService(Class<T> serviceType, Supplier<T> supplier) {
@@ -165,16 +171,32 @@ public final class DefaultServiceContext implements ServiceContext {
      * @return the items found, never {@code null}.
      */
     private <T> List<T> loadServices(final Class<T> serviceType, Supplier<List<T>> supplier) {
+        StartupCache startupCache = StartupCache.of(classLoader);
+        if(startupCache!=null){
+            List<T> cached = loadCachedServices(serviceType, startupCache);
+            if(cached!=null){
+                return cached;
+            }
+        }
+        List<T> indexed = loadIndexedServices(serviceType);
+        if(indexed!=null){
+            return indexed;
+        }
         List<T> services = new ArrayList<>();
         try {
+            List<String> classNames = new ArrayList<>();
             for (T t : ServiceLoader.load(serviceType, classLoader)) {
                 if(t instanceof ClassloaderAware){
                     ((ClassloaderAware)t).init(classLoader);
                 }
                 services.add(t);
+                classNames.add(t.getClass().getName());
             }
             Collections.sort(services, PriorityServiceComparator.getInstance());
             services = Collections.unmodifiableList(services);
+            if(startupCache!=null){
+                startupCache.putServiceClassNames(serviceType, classNames);
+            }
         } catch (ServiceConfigurationError e) {
             if(supplier!=null){
                 services = supplier.get();
@@ -189,6 +211,122 @@ public final class DefaultServiceContext implements ServiceContext {
         return services;
     }
 
+    /**
+     * Loads services using the {@link ServiceIndex} instances generated at build time. The indices are only used,
+     * if each resource registering the service type belongs to a classpath entry providing an index of this
+     * type.
+     *
+     * @param <T>         the concrete type.
+     * @param serviceType The service type.
+     * @return the items loaded, or {@code null}, if the services are not fully indexed or cannot be loaded.
+     */
+    private <T> List<T> loadIndexedServices(final Class<T> serviceType) {
+        Map<String, ServiceIndex> indices = getServiceIndices();
+        if(indices.isEmpty() || serviceType==ServiceIndex.class){
+            return null;
+        }
+        String resourceName = "META-INF/services/" + serviceType.getName();
+        Map<String, ServiceIndex.Entry> entries = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(resourceName);
+            while (resources.hasMoreElements()) {
+                String resource = resources.nextElement().toExternalForm();
+                ServiceIndex index = indices.get(resource.substring(0, resource.length() - resourceName.length()));
+                if (index == null || !index.getServiceTypes().contains(serviceType.getName())) {
+                    return null;
+                }
+                for (ServiceIndex.Entry entry : index.getEntries(serviceType.getName())) {
+                    entries.putIfAbsent(entry.getClassName(), entry);
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        List<ServiceIndex.Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((e1, e2) -> {
+            int prio = Integer.compare(e2.getPriority(), e1.getPriority());
+            return prio!=0?prio:getSimpleName(e1.getClassName()).compareTo(getSimpleName(e2.getClassName()));
+        });
+        List<T> services = new ArrayList<>(sorted.size());
+        try {
+            for (ServiceIndex.Entry entry : sorted) {
+                Object instance = entry.getFactory()!=null?entry.getFactory().get():
+                        Class.forName(entry.getClassName(), true, classLoader).getDeclaredConstructor().newInstance();
+                T t = serviceType.cast(instance);
+                if(t instanceof ClassloaderAware){
+                    ((ClassloaderAware)t).init(classLoader);
+                }
+                services.add(t);
+            }
+        } catch (Exception | LinkageError e) {
+            LOG.log(Level.FINE, "Indexed services cannot be loaded, falling back to service discovery: "
+                    + serviceType.getName(), e);
+            return null;
+        }
+        return Collections.unmodifiableList(services);
+    }
+
+    private static String getSimpleName(String className) {
+        return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    }
+
+    /**
+     * Get the service indices available, loading them on first access.
+     * @return the indices, by the URL of the classpath entry containing them, never null.
+     */
+    private Map<String, ServiceIndex> getServiceIndices() {
+        Map<String, ServiceIndex> indices = serviceIndices;
+        if(indices==null){
+            indices = new HashMap<>();
+            try {
+                for (ServiceIndex index : ServiceLoader.load(ServiceIndex.class, classLoader)) {
+                    String classResource = index.getClass().getName().replace('.', '/') + ".class";
+                    URL url = index.getClass().getClassLoader().getResource(classResource);
+                    if (url != null) {
+                        String location = url.toExternalForm();
+                        indices.put(location.substring(0, location.length() - classResource.length()), index);
+                    }
+                }
+            } catch (ServiceConfigurationError e) {
+                LOG.log(Level.WARNING, "Error loading service indices.", e);
+            }
+            serviceIndices = indices;
+        }
+        return indices;
+    }
+
+    /**
+     * Loads services using the implementation classes cached by the {@link StartupCache}, without service discovery.
+     *
+     * @param <T>         the concrete type.
+     * @param serviceType The service type.
+     * @param startupCache the startup cache, not {@code null}.
+     * @return the items loaded, or {@code null}, if they are not cached or cannot be loaded.
+     */
+    private <T> List<T> loadCachedServices(final Class<T> serviceType, StartupCache startupCache) {
+        List<String> classNames = startupCache.getServiceClassNames(serviceType);
+        if(classNames==null){
+            return null;
+        }
+        List<T> services = new ArrayList<>();
+        try {
+            for (String className : classNames) {
+                Class<?> type = Class.forName(className, true, classLoader);
+                T t = serviceType.cast(type.getDeclaredConstructor().newInstance());
+                if(t instanceof ClassloaderAware){
+                    ((ClassloaderAware)t).init(classLoader);
+                }
+                services.add(t);
+            }
+        } catch (Exception | LinkageError e) {
+            LOG.log(Level.FINE, "Cached services cannot be loaded, falling back to service discovery: "
+                    + serviceType.getName(), e);
+            return null;
+        }
+        Collections.sort(services, PriorityServiceComparator.getInstance());
+        return Collections.unmodifiableList(services);
+    }
+
     @Override
     public <T> T register(Class<T> serviceType, T instance, boolean force) {
         if(force){
@@ -214,6 +352,7 @@ public final class DefaultServiceContext implements ServiceContext {
         servicesLoaded.clear();
         singletons.clear();
         factoryTypes.clear();
+        serviceIndices = null;
     }
 
 
@@ -34,6 +34,9 @@ import java.util.logging.Logger;
  */
 public class EnumConverter<T> implements PropertyConverter<T> {
 
+    /** The formats supported. */
+    private static final String[] SUPPORTED_FORMATS = {"<enumValue>"};
+
     private final Logger LOG = Logger.getLogger(EnumConverter.class.getName());
     private Class<T> enumType;
     private Method factory;
@@ -53,7 +56,7 @@ public class EnumConverter<T> implements PropertyConverter<T> {
 
     @Override
     public T convert(String value, ConversionContext ctx) {
-        ctx.addSupportedFormats(getClass(), "<enumValue>");
+        ctx.addSupportedFormats(getClass(), SUPPORTED_FORMATS);
         try {
             return (T) factory.invoke(null, value);
         } catch (InvocationTargetException | IllegalAccessException e) {
@@ -0,0 +1,437 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Immutable map implemented as hash array mapped trie. Adding or removing an entry creates a new map, which shares
+ * all nodes not on the path to the entry with the original map, so it only allocates {@code O(log32 n)} nodes.
+ * This class is immutable and thread-safe.
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(new Node(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size){
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty map.
+     * @param <K> the key type.
+     * @param <V> the value type.
+     * @return the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty(){
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Creates a map containing all entries of the given map.
+     * @param map the map, not null.
+     * @param <K> the key type.
+     * @param <V> the value type.
+     * @return the new map.
+     */
+    static <K, V> PersistentHashMap<K, V> of(Map<? extends K, ? extends V> map){
+        PersistentHashMap<K, V> result = empty();
+        for(Map.Entry<? extends K, ? extends V> en:map.entrySet()){
+            result = result.plus(en.getKey(), en.getValue());
+        }
+        return result;
+    }
+
+    private static int hash(Object key){
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findLeaf(key)!=null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Leaf leaf = findLeaf(key);
+        return leaf==null?null:cast(leaf.value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object value){
+        return (V) value;
+    }
+
+    private Leaf findLeaf(Object key){
+        if(key==null){
+            return null;
+        }
+        int hash = hash(key);
+        Object current = root;
+        int shift = 0;
+        while(true){
+            if(current instanceof Node){
+                Node node = (Node)current;
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if((node.bitmap & bit)==0){
+                    return null;
+                }
+                current = node.slots[node.index(bit)];
+                shift += BITS;
+            }else if(current instanceof Leaf){
+                Leaf leaf = (Leaf)current;
+                return leaf.hash==hash && leaf.key.equals(key)?leaf:null;
+            }else{
+                return ((Collision)current).find(hash, key);
+            }
+        }
+    }
+
+    /**
+     * Get a map with the given entry added or replaced.
+     * @param key the key, not null.
+     * @param value the value, not null.
+     * @return the new map, or this instance, if the entry is already contained.
+     */
+    PersistentHashMap<K, V> plus(K key, V value){
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        boolean[] added = new boolean[1];
+        Object newRoot = put(root, 0, new Leaf(hash(key), key, value), added);
+        if(newRoot==root){
+            return this;
+        }
+        return new PersistentHashMap<>((Node)newRoot, added[0]?size+1:size);
+    }
+
+    /**
+     * Get a map with the given key removed.
+     * @param key the key, not null.
+     * @return the new map, or this instance, if the key is not contained.
+     */
+    PersistentHashMap<K, V> minus(K key){
+        Objects.requireNonNull(key);
+        Object newRoot = remove(root, 0, hash(key), key);
+        if(newRoot==root){
+            return this;
+        }
+        if(newRoot==null){
+            return empty();
+        }
+        if(!(newRoot instanceof Node)){
+            int bit = 1 << ((slotHash(newRoot)) & MASK);
+            newRoot = new Node(bit, new Object[]{newRoot});
+        }
+        return new PersistentHashMap<>((Node)newRoot, size-1);
+    }
+
+    private static int slotHash(Object slot){
+        return slot instanceof Leaf?((Leaf)slot).hash:((Collision)slot).hash;
+    }
+
+    private static Object put(Object current, int shift, Leaf leaf, boolean[] added){
+        if(current instanceof Node){
+            Node node = (Node)current;
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = node.index(bit);
+            if((node.bitmap & bit)==0){
+                added[0] = true;
+                return node.insert(bit, index, leaf);
+            }
+            Object slot = node.slots[index];
+            Object newSlot = put(slot, shift + BITS, leaf, added);
+            return newSlot==slot?node:node.replace(index, newSlot);
+        }
+        if(current instanceof Leaf){
+            Leaf existing = (Leaf)current;
+            if(existing.hash==leaf.hash && existing.key.equals(leaf.key)){
+                return existing.value.equals(leaf.value)?existing:leaf;
+            }
+            added[0] = true;
+            if(existing.hash==leaf.hash){
+                return new Collision(leaf.hash, new Leaf[]{existing, leaf});
+            }
+            return merge(existing, existing.hash, leaf, leaf.hash, shift);
+        }
+        Collision collision = (Collision)current;
+        if(collision.hash==leaf.hash){
+            return collision.put(leaf, added);
+        }
+        added[0] = true;
+        return merge(collision, collision.hash, leaf, leaf.hash, shift);
+    }
+
+    private static Node merge(Object a, int hashA, Object b, int hashB, int shift){
+        int indexA = (hashA >>> shift) & MASK;
+        int indexB = (hashB >>> shift) & MASK;
+        if(indexA==indexB){
+            return new Node(1 << indexA, new Object[]{merge(a, hashA, b, hashB, shift + BITS)});
+        }
+        if(indexA<indexB){
+            return new Node((1 << indexA) | (1 << indexB), new Object[]{a, b});
+        }
+        return new Node((1 << indexA) | (1 << indexB), new Object[]{b, a});
+    }
+
+    /**
+     * Removes the key.
+     * @return the new element, null, if the element is empty, or the given element, if the key is not contained.
+     */
+    private static Object remove(Object current, int shift, int hash, Object key){
+        if(current instanceof Node){
+            Node node = (Node)current;
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if((node.bitmap & bit)==0){
+                return node;
+            }
+            int index = node.index(bit);
+            Object slot = node.slots[index];
+            Object newSlot = remove(slot, shift + BITS, hash, key);
+            if(newSlot==slot){
+                return node;
+            }
+            if(newSlot==null){
+                if(node.slots.length==1){
+                    return null;
+                }
+                Node result = node.delete(bit, index);
+                if(result.slots.length==1 && !(result.slots[0] instanceof Node)){
+                    return result.slots[0];
+                }
+                return result;
+            }
+            if(node.slots.length==1 && !(newSlot instanceof Node)){
+                return newSlot;
+            }
+            return node.replace(index, newSlot);
+        }
+        if(current instanceof Leaf){
+            Leaf leaf = (Leaf)current;
+            return leaf.hash==hash && leaf.key.equals(key)?null:leaf;
+        }
+        return ((Collision)current).remove(hash, key);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> result = entrySet;
+        if(result==null){
+            result = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /**
+     * Iterator walking the trie depth first.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>>{
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Leaf next;
+
+        EntryIterator(Node root){
+            arrays.push(root.slots);
+            positions.push(0);
+            advance();
+        }
+
+        private void advance(){
+            next = null;
+            while(!arrays.isEmpty()){
+                Object[] array = arrays.peek();
+                int pos = positions.pop();
+                if(pos>=array.length){
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(pos + 1);
+                Object slot = array[pos];
+                if(slot instanceof Leaf){
+                    next = (Leaf)slot;
+                    return;
+                }
+                arrays.push(slot instanceof Node?((Node)slot).slots:((Collision)slot).leaves);
+                positions.push(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next!=null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if(next==null){
+                throw new NoSuchElementException();
+            }
+            Leaf result = next;
+            advance();
+            return new AbstractMap.SimpleImmutableEntry<>((K)result.key, (V)result.value);
+        }
+    }
+
+    /**
+     * Inner node, holding a slot for each bit set in the bitmap.
+     */
+    private static final class Node implements Serializable{
+        private static final long serialVersionUID = 1L;
+        private final int bitmap;
+        private final Object[] slots;
+
+        Node(int bitmap, Object[] slots){
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        int index(int bit){
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node insert(int bit, int index, Object slot){
+            Object[] newSlots = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            newSlots[index] = slot;
+            System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+            return new Node(bitmap | bit, newSlots);
+        }
+
+        Node replace(int index, Object slot){
+            Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return new Node(bitmap, newSlots);
+        }
+
+        Node delete(int bit, int index){
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+            return new Node(bitmap & ~bit, newSlots);
+        }
+    }
+
+    /**
+     * A single entry.
+     */
+    private static final class Leaf implements Serializable{
+        private static final long serialVersionUID = 1L;
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        Leaf(int hash, Object key, Object value){
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Entries with different keys, but the same hash.
+     */
+    private static final class Collision implements Serializable{
+        private static final long serialVersionUID = 1L;
+        private final int hash;
+        private final Leaf[] leaves;
+
+        Collision(int hash, Leaf[] leaves){
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        Leaf find(int hash, Object key){
+            if(hash!=this.hash){
+                return null;
+            }
+            for(Leaf leaf:leaves){
+                if(leaf.key.equals(key)){
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        Object put(Leaf leaf, boolean[] added){
+            for(int i=0;i<leaves.length;i++){
+                if(leaves[i].key.equals(leaf.key)){
+                    if(leaves[i].value.equals(leaf.value)){
+                        return this;
+                    }
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new Collision(hash, newLeaves);
+                }
+            }
+            added[0] = true;
+            Leaf[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = leaf;
+            return new Collision(hash, newLeaves);
+        }
+
+        Object remove(int hash, Object key){
+            if(hash!=this.hash){
+                return this;
+            }
+            for(int i=0;i<leaves.length;i++){
+                if(leaves[i].key.equals(key)){
+                    if(leaves.length==2){
+                        return leaves[1 - i];
+                    }
+                    Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, newLeaves, 0, i);
+                    System.arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+                    return new Collision(hash, newLeaves);
+                }
+            }
+            return this;
+        }
+    }
+}
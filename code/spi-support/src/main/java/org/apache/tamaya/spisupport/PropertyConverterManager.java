@@ -32,9 +32,6 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -57,9 +54,38 @@ public class PropertyConverterManager {
      */
     private final Map<TypeLiteral<?>, List<PropertyConverter<?>>> transitiveConverters = new ConcurrentHashMap<>();
     /**
-     * The lock used.
+     * Copy-on-write lookup table, containing the fully merged (direct, transitive, boxed and raw type) converters
+     * per target type evaluated so far. The table is replaced on each change and reset on registration.
      */
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<TypeLiteral<?>, List<PropertyConverter<?>>> lookupTable = Collections.emptyMap();
+    /**
+     * The lock used for modifications.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Mapping of native types to the corresponding boxed types.
+     */
+    private static final Map<Type, TypeLiteral<?>> BOXED_TYPES = new HashMap<>();
+
+    static {
+        BOXED_TYPES.put(int.class, TypeLiteral.of(Integer.class));
+        BOXED_TYPES.put(short.class, TypeLiteral.of(Short.class));
+        BOXED_TYPES.put(byte.class, TypeLiteral.of(Byte.class));
+        BOXED_TYPES.put(long.class, TypeLiteral.of(Long.class));
+        BOXED_TYPES.put(boolean.class, TypeLiteral.of(Boolean.class));
+        BOXED_TYPES.put(char.class, TypeLiteral.of(Character.class));
+        BOXED_TYPES.put(float.class, TypeLiteral.of(Float.class));
+        BOXED_TYPES.put(double.class, TypeLiteral.of(Double.class));
+        BOXED_TYPES.put(int[].class, TypeLiteral.of(Integer[].class));
+        BOXED_TYPES.put(short[].class, TypeLiteral.of(Short[].class));
+        BOXED_TYPES.put(byte[].class, TypeLiteral.of(Byte[].class));
+        BOXED_TYPES.put(long[].class, TypeLiteral.of(Long[].class));
+        BOXED_TYPES.put(boolean[].class, TypeLiteral.of(Boolean[].class));
+        BOXED_TYPES.put(char[].class, TypeLiteral.of(Character[].class));
+        BOXED_TYPES.put(float[].class, TypeLiteral.of(Float[].class));
+        BOXED_TYPES.put(double[].class, TypeLiteral.of(Double[].class));
+    }
 
     private static final Comparator<Object> PRIORITY_COMPARATOR = new Comparator<Object>() {
 
@@ -103,12 +129,40 @@ public class PropertyConverterManager {
      */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     protected void initConverters() {
+        StartupCache startupCache = StartupCache.of(serviceContext.getClassLoader());
         for (PropertyConverter conv : serviceContext.getServices(PropertyConverter.class)) {
-            Type type = TypeLiteral.getGenericInterfaceTypeParameters(conv.getClass(), PropertyConverter.class)[0];
+            // class files in directories are not covered by the fingerprint of the startup cache.
+            StartupCache converterCache = startupCache!=null && StartupCache.isFingerprinted(conv.getClass())?
+                    startupCache:null;
+            Type type = converterCache==null?null:getCachedTargetType(conv, converterCache);
+            if(type==null) {
+                type = TypeLiteral.getGenericInterfaceTypeParameters(conv.getClass(), PropertyConverter.class)[0];
+                if (converterCache != null && type instanceof Class) {
+                    converterCache.putConverterTarget(conv.getClass().getName(), ((Class<?>) type).getName());
+                }
+            }
             register(TypeLiteral.of(type), conv);
         }
     }
 
+    /**
+     * Get the target type of a converter cached by the {@link StartupCache}.
+     * @param converter the converter, not {@code null}.
+     * @param startupCache the startup cache, not {@code null}.
+     * @return the target type, or {@code null}, if not cached.
+     */
+    private static Type getCachedTargetType(PropertyConverter<?> converter, StartupCache startupCache) {
+        String targetType = startupCache.getConverterTarget(converter.getClass().getName());
+        if(targetType==null){
+            return null;
+        }
+        try {
+            return Class.forName(targetType, false, converter.getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
 
     /**
      * Registers a new converters instance.
@@ -120,10 +174,8 @@ public class PropertyConverterManager {
     @SuppressWarnings("unchecked")
     public <T> void register(TypeLiteral<T> targetType, PropertyConverter<T> converter) {
         Objects.requireNonNull(converter);
-        Lock writeLock = lock.writeLock();
-        try {
-            writeLock.lock();
-			List<PropertyConverter<?>> converters = List.class.cast(this.converters.get(targetType));
+        synchronized (writeLock) {
+            List<PropertyConverter<?>> converters = List.class.cast(this.converters.get(targetType));
             if(converters!=null && converters.contains(converter)){
                 return;
             }
@@ -170,8 +222,8 @@ public class PropertyConverterManager {
                 }
                 superClass = superClass.getSuperclass();
             }
-        } finally {
-            writeLock.unlock();
+            // merged converters must be reevaluated
+            this.lookupTable = Collections.emptyMap();
         }
     }
 
@@ -194,13 +246,7 @@ public class PropertyConverterManager {
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
     public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
-        Lock readLock = lock.readLock();
-        try {
-            readLock.lock();
-            return new HashMap<>(this.converters);
-        } finally {
-            readLock.unlock();
-        }
+        return new HashMap<>(this.converters);
     }
 
 
@@ -231,64 +277,73 @@ public class PropertyConverterManager {
      *
      * @param targetType the target type, not {@code null}.
      * @param <T>        the type class
-     * @return the ordered createList of converters (may be empty for not convertible types).
+     * @return the ordered, unmodifiable createList of converters (may be empty for not convertible types).
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
+    @SuppressWarnings("unchecked")
     public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> targetType) {
-        Lock readLock = lock.readLock();
-        List<PropertyConverter<T>> converterList = new ArrayList<>();
-        // direct mapped converters
-        try {
-            readLock.lock();
-            addConvertersToList(List.class.cast(this.converters.get(targetType)), converterList);
-            addConvertersToList(List.class.cast(this.transitiveConverters.get(targetType)), converterList);
-        } finally {
-            readLock.unlock();
+        List<PropertyConverter<?>> converterList = lookupTable.get(targetType);
+        if (converterList == null) {
+            converterList = evaluatePropertyConverters(targetType);
         }
-        // handling of java.lang wrapper classes
-        TypeLiteral<T> boxedType = mapBoxedType(targetType);
-        if (boxedType != null) {
-            try {
-                readLock.lock();
-                addConvertersToList(List.class.cast(this.converters.get(boxedType)), converterList);
-            } finally {
-                readLock.unlock();
+        return List.class.cast(converterList);
+    }
+
+    /**
+     * Evaluates the merged converters for the given target type and adds them to the lookup table.
+     *
+     * @param targetType the target type, not {@code null}.
+     * @return the ordered, unmodifiable createList of converters.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private List<PropertyConverter<?>> evaluatePropertyConverters(TypeLiteral<?> targetType) {
+        synchronized (writeLock) {
+            List<PropertyConverter<?>> converterList = lookupTable.get(targetType);
+            if (converterList != null) {
+                return converterList;
             }
-        }
-        if (converterList.isEmpty() && !TypeLiteral.of(String.class).equals(targetType)) {
-            // adding any converters created on the fly, e.g. for enum types.
-            PropertyConverter<T> defaultConverter = createDefaultPropertyConverter(targetType);
-            if (defaultConverter != null) {
-                register(targetType, defaultConverter);
-                try {
-                    readLock.lock();
-                    addConvertersToList(List.class.cast(this.converters.get(targetType)), converterList);
-                } finally {
-                    readLock.unlock();
+            Set<PropertyConverter<?>> mergedConverters = collectConverters(targetType);
+            if (mergedConverters.isEmpty() && !TypeLiteral.of(String.class).equals(targetType)) {
+                // adding any converters created on the fly, e.g. for enum types.
+                PropertyConverter defaultConverter = createDefaultPropertyConverter(targetType);
+                if (defaultConverter != null) {
+                    register(targetType, defaultConverter);
+                    addConverters(this.converters.get(targetType), mergedConverters);
                 }
             }
-        }
-        // check for parametrized types, ignoring param type
-        // direct mapped converters
-        if(targetType.getType()!=null) {
-            try {
-                readLock.lock();
-                addConvertersToList(List.class.cast(this.converters.get(
-                        TypeLiteral.of(targetType.getRawType()))), converterList);
-            } finally {
-                readLock.unlock();
+            // check for parametrized types, ignoring param type
+            if (targetType.getType() != null) {
+                addConverters(this.converters.get(TypeLiteral.of(targetType.getRawType())), mergedConverters);
             }
+            converterList = Collections.unmodifiableList(new ArrayList<>(mergedConverters));
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> newLookupTable = new HashMap<>(lookupTable);
+            newLookupTable.put(targetType, converterList);
+            this.lookupTable = newLookupTable;
+            return converterList;
+        }
+    }
+
+    /**
+     * Collects the direct, transitive and boxed type converters in order of precedence.
+     *
+     * @param targetType the target type, not {@code null}.
+     * @return the converters found, in order of precedence.
+     */
+    private Set<PropertyConverter<?>> collectConverters(TypeLiteral<?> targetType) {
+        Set<PropertyConverter<?>> result = new LinkedHashSet<>();
+        addConverters(this.converters.get(targetType), result);
+        addConverters(this.transitiveConverters.get(targetType), result);
+        // handling of java.lang wrapper classes
+        TypeLiteral<?> boxedType = mapBoxedType(targetType);
+        if (boxedType != null) {
+            addConverters(this.converters.get(boxedType), result);
         }
-        return converterList;
+        return result;
     }
 
-    private <T> void addConvertersToList(Collection<PropertyConverter<T>> converters, List<PropertyConverter<T>> converterList) {
+    private void addConverters(Collection<PropertyConverter<?>> converters, Set<PropertyConverter<?>> result) {
         if (converters != null) {
-            for(PropertyConverter<T> conv:converters) {
-                if(!converterList.contains(conv)) {
-                    converterList.add(conv);
-                }
-            }
+            result.addAll(converters);
         }
     }
 
@@ -300,57 +355,8 @@ public class PropertyConverterManager {
      * @return the boxed type, or null.
      */
     @SuppressWarnings("unchecked")
-	private <T> TypeLiteral<T> mapBoxedType(TypeLiteral<T> targetType) {
-        Type parameterType = targetType.getType();
-        if (parameterType == int.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Integer.class));
-        }
-        if (parameterType == short.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Short.class));
-        }
-        if (parameterType == byte.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Byte.class));
-        }
-        if (parameterType == long.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Long.class));
-        }
-        if (parameterType == boolean.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Boolean.class));
-        }
-        if (parameterType == char.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Character.class));
-        }
-        if (parameterType == float.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Float.class));
-        }
-        if (parameterType == double.class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Double.class));
-        }
-        if (parameterType == int[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Integer[].class));
-        }
-        if (parameterType == short[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Short[].class));
-        }
-        if (parameterType == byte[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Byte[].class));
-        }
-        if (parameterType == long[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Long[].class));
-        }
-        if (parameterType == boolean[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Boolean[].class));
-        }
-        if (parameterType == char[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Character[].class));
-        }
-        if (parameterType == float[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Float[].class));
-        }
-        if (parameterType == double[].class) {
-            return TypeLiteral.class.cast(TypeLiteral.of(Double[].class));
-        }
-        return null;
+    private <T> TypeLiteral<T> mapBoxedType(TypeLiteral<T> targetType) {
+        return (TypeLiteral<T>) BOXED_TYPES.get(targetType.getType());
     }
 
     /**
@@ -454,15 +460,17 @@ public class PropertyConverterManager {
 
         private final Method factoryMethod;
         private final Class<T> targetType;
+        private final String[] supportedFormats;
 
         DefaultPropertyConverter(Method factoryMethod, Class<T> targetType){
             this.factoryMethod = Objects.requireNonNull(factoryMethod);
             this.targetType =  Objects.requireNonNull(targetType);
+            this.supportedFormats = new String[]{"<String -> " + factoryMethod.toGenericString()};
         }
 
         @Override
         public T convert(String value, ConversionContext context) {
-            context.addSupportedFormats(getClass(), "<String -> " + factoryMethod.toGenericString());
+            context.addSupportedFormats(getClass(), supportedFormats);
             if (!Modifier.isStatic(factoryMethod.getModifiers())) {
                 throw new ConfigException(factoryMethod.toGenericString() +
                         " is not a static method. Only static " +
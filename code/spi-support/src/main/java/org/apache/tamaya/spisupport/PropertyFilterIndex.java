@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.PropertyFilter;
+
+import java.util.*;
+
+/**
+ * Dispatch index of {@link PropertyFilter} instances, based on the key prefixes declared by
+ * {@link PropertyFilter#getKeyPrefixes()}. The index is a prefix trie, where each node holds the filters applicable
+ * to all keys starting with the node's prefix, in the order of the filter list the index was created from.
+ * Looking up the filters for a key therefore only walks the trie along the key and does not allocate.
+ * This class is immutable and thread-safe.
+ */
+final class PropertyFilterIndex {
+
+    private final Node root;
+
+    private PropertyFilterIndex(Node root){
+        this.root = root;
+    }
+
+    /**
+     * Creates a new index.
+     * @param filters the filters, in order of evaluation, not null.
+     * @return the new index.
+     */
+    static PropertyFilterIndex of(List<PropertyFilter> filters){
+        Objects.requireNonNull(filters);
+        BuildNode root = new BuildNode();
+        boolean scoped = false;
+        for(int i=0;i<filters.size();i++){
+            Collection<String> prefixes = filters.get(i).getKeyPrefixes();
+            if(prefixes==null || prefixes.isEmpty()){
+                root.filters.set(i);
+                continue;
+            }
+            scoped = true;
+            for(String prefix:prefixes){
+                BuildNode node = root;
+                for(int c=0;c<prefix.length();c++){
+                    node = node.children.computeIfAbsent(prefix.charAt(c), k -> new BuildNode());
+                }
+                node.filters.set(i);
+            }
+        }
+        if(!scoped){
+            return new PropertyFilterIndex(new Node(filters, new char[0], new Node[0]));
+        }
+        return new PropertyFilterIndex(root.build(filters, new BitSet()));
+    }
+
+    /**
+     * Get the filters to be applied to the given key.
+     * @param key the key, not null.
+     * @return the filters, in order of evaluation, never null.
+     */
+    List<PropertyFilter> getFilters(String key){
+        Node node = root;
+        for(int i=0;i<key.length();i++){
+            Node child = node.getChild(key.charAt(i));
+            if(child==null){
+                break;
+            }
+            node = child;
+        }
+        return node.filters;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyFilterIndex{" +
+                "filters=" + root.filters +
+                '}';
+    }
+
+    /**
+     * Immutable trie node.
+     */
+    private static final class Node{
+        private final List<PropertyFilter> filters;
+        private final char[] keys;
+        private final Node[] children;
+
+        Node(List<PropertyFilter> filters, char[] keys, Node[] children){
+            this.filters = filters;
+            this.keys = keys;
+            this.children = children;
+        }
+
+        Node getChild(char c){
+            int pos = Arrays.binarySearch(keys, c);
+            return pos<0?null:children[pos];
+        }
+    }
+
+    /**
+     * Mutable trie node, used for building the index.
+     */
+    private static final class BuildNode{
+        private final BitSet filters = new BitSet();
+        private final SortedMap<Character, BuildNode> children = new TreeMap<>();
+
+        /**
+         * Builds the immutable node.
+         * @param allFilters all filters.
+         * @param parentFilters the filter indices applicable for the parent node.
+         * @return the new node.
+         */
+        Node build(List<PropertyFilter> allFilters, BitSet parentFilters){
+            BitSet nodeFilters = (BitSet)parentFilters.clone();
+            nodeFilters.or(filters);
+            List<PropertyFilter> filterList = new ArrayList<>(nodeFilters.cardinality());
+            for(int i = nodeFilters.nextSetBit(0); i>=0; i = nodeFilters.nextSetBit(i+1)){
+                filterList.add(allFilters.get(i));
+            }
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int pos = 0;
+            for(Map.Entry<Character, BuildNode> en:children.entrySet()){
+                keys[pos] = en.getKey();
+                nodes[pos] = en.getValue().build(allFilters, nodeFilters);
+                pos++;
+            }
+            return new Node(Collections.unmodifiableList(filterList), keys, nodes);
+        }
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.tamaya.spisupport;
 import org.apache.tamaya.spi.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,6 +40,14 @@ public final class PropertyFiltering{
      * The maximal number of filter cycles performed before aborting.
      */
     private static final int MAX_FILTER_LOOPS = 10;
+    /**
+     * The minimal number of entries, for which filtering is split into parallel tasks.
+     */
+    static final int PARALLEL_FILTER_THRESHOLD = 1024;
+    /**
+     * The maximal number of entries filtered by a single parallel task.
+     */
+    private static final int PARALLEL_FILTER_BATCH = 256;
 
     /**
      * Private singleton constructor.
@@ -55,6 +65,20 @@ public final class PropertyFiltering{
         return filterValue(value, filterContext);
     }
 
+    /**
+     * Filters a single value, as done by {@link #applyFilters(Map, ConfigurationContext)}: the filters have
+     * access to the given configuration entries.
+     * @param value the raw value, not {@code null}.
+     * @param configEntries the read-only raw configuration entries shared by the filter contexts, not {@code null}.
+     * @param context the context
+     * @return the filtered value, including {@code null}.
+     */
+    public static PropertyValue applyFilter(PropertyValue value, Map<String, PropertyValue> configEntries,
+                                            ConfigurationContext context) {
+        FilterContext filterContext = FilterContext.ofSharedConfigEntries(value, configEntries, context);
+        return filterValue(value, filterContext);
+    }
+
     /**
      * Filters a single createValue.
      * @param values the full values, not {@code null}.
@@ -80,10 +104,29 @@ public final class PropertyFiltering{
      * @return the filtered createValue, including {@code null}.
      */
     public static Map<String, PropertyValue> applyFilters(Map<String, PropertyValue> rawProperties, ConfigurationContext context) {
+        return applyFilters(rawProperties, context, null);
+    }
+
+    /**
+     * Filters all properties. If a pool is passed and the number of properties reaches
+     * {@link #PARALLEL_FILTER_THRESHOLD}, the entries are filtered in parallel tasks on the pool, hereby the
+     * registered filters must support concurrent access. The result is the same as with sequential filtering.
+     * @param rawProperties the unfiltered properties, not {@code null}.
+     * @param context the context
+     * @param pool the pool used for parallel filtering, or {@code null} for filtering sequentially.
+     * @return the filtered createValue, including {@code null}.
+     */
+    public static Map<String, PropertyValue> applyFilters(Map<String, PropertyValue> rawProperties, ConfigurationContext context,
+                                                          ForkJoinPool pool) {
+        if(pool!=null && rawProperties.size()>=PARALLEL_FILTER_THRESHOLD){
+            return applyFiltersParallel(rawProperties, context, pool);
+        }
         Map<String, PropertyValue> result = new HashMap<>();
+        // The raw entries are copied once and shared by all filter contexts of this pass.
+        Map<String, PropertyValue> configEntries = FilterContext.createConfigEntries(rawProperties);
         // Apply filters to values, prevent values filtered to null!
-        for (Map.Entry<String, PropertyValue> entry : rawProperties.entrySet()) {
-            FilterContext filterContext = new FilterContext(entry.getValue(), rawProperties, context);
+        for (Map.Entry<String, PropertyValue> entry : configEntries.entrySet()) {
+            FilterContext filterContext = FilterContext.ofSharedConfigEntries(entry.getValue(), configEntries, context);
             PropertyValue filtered = filterValue(filterContext.getProperty(), filterContext);
             if(filtered!=null){
                 result.put(filtered.getKey(), filtered);
@@ -92,6 +135,95 @@ public final class PropertyFiltering{
         return result;
     }
 
+    /**
+     * Filters the properties with the given key prefix. Each value is filtered with all raw properties shared as
+     * configuration entries, so the result is the same as filtering all properties and selecting the matching keys
+     * afterwards, without filtering the other properties.
+     * @param rawProperties the unfiltered properties, not {@code null}.
+     * @param prefix the key prefix, not {@code null}.
+     * @param context the context
+     * @return the filtered values with the given key prefix.
+     */
+    public static Map<String, PropertyValue> applyFilters(Map<String, PropertyValue> rawProperties, String prefix,
+                                                          ConfigurationContext context) {
+        Map<String, PropertyValue> result = new HashMap<>();
+        Map<String, PropertyValue> configEntries = FilterContext.createConfigEntries(rawProperties);
+        for (Map.Entry<String, PropertyValue> entry : configEntries.entrySet()) {
+            if(!entry.getKey().startsWith(prefix)){
+                continue;
+            }
+            FilterContext filterContext = FilterContext.ofSharedConfigEntries(entry.getValue(), configEntries, context);
+            PropertyValue filtered = filterValue(filterContext.getProperty(), filterContext);
+            if(filtered!=null){
+                result.put(filtered.getKey(), filtered);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, PropertyValue> applyFiltersParallel(Map<String, PropertyValue> rawProperties,
+                                                                   ConfigurationContext context, ForkJoinPool pool) {
+        Map<String, PropertyValue> configEntries = FilterContext.createConfigEntries(rawProperties);
+        PropertyValue[] values = configEntries.values().toArray(new PropertyValue[0]);
+        pool.invoke(new FilterTask(values, 0, values.length, configEntries, context));
+        // Results are collected in iteration order, so key collisions resolve as in the sequential case.
+        Map<String, PropertyValue> result = new HashMap<>();
+        for(PropertyValue filtered:values){
+            if(filtered!=null){
+                result.put(filtered.getKey(), filtered);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task filtering a range of values in place, splitting larger ranges into subtasks.
+     */
+    private static final class FilterTask extends RecursiveAction{
+        private final PropertyValue[] values;
+        private final int from;
+        private final int to;
+        private final Map<String, PropertyValue> configEntries;
+        private final ConfigurationContext context;
+
+        FilterTask(PropertyValue[] values, int from, int to, Map<String, PropertyValue> configEntries,
+                   ConfigurationContext context){
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.configEntries = configEntries;
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            if(to-from>PARALLEL_FILTER_BATCH){
+                int mid = (from+to) >>> 1;
+                invokeAll(new FilterTask(values, from, mid, configEntries, context),
+                        new FilterTask(values, mid, to, configEntries, context));
+                return;
+            }
+            for(int i=from;i<to;i++){
+                FilterContext filterContext = FilterContext.ofSharedConfigEntries(values[i], configEntries, context);
+                values[i] = filterValue(filterContext.getProperty(), filterContext);
+            }
+        }
+    }
+
+    /**
+     * Get the filters to be applied to a value. If the context is a {@link DefaultConfigurationContext}, only the
+     * filters applicable to the value's key are returned.
+     * @param value the value to be filtered, not {@code null}.
+     * @param context the context, not {@code null}.
+     * @return the filters, in order of evaluation.
+     */
+    private static List<PropertyFilter> getFilters(PropertyValue value, ConfigurationContext context) {
+        if(context instanceof DefaultConfigurationContext && value!=null && value.getKey()!=null){
+            return ((DefaultConfigurationContext)context).getPropertyFilters(value.getKey());
+        }
+        return context.getPropertyFilters();
+    }
+
     /**
      * Basic filter logic.
      * @param context the filter context, not {@code null}.
@@ -99,10 +231,11 @@ public final class PropertyFiltering{
      */
     private static PropertyValue filterValue(PropertyValue inputValue, FilterContext context) {
         PropertyValue filteredValue = inputValue;
+        List<PropertyFilter> filters = getFilters(inputValue, context.getConfigurationContext());
 
         for (int i = 0; i < MAX_FILTER_LOOPS; i++) {
             int changes = 0;
-            for (PropertyFilter filter : context.getConfigurationContext().getPropertyFilters()) {
+            for (PropertyFilter filter : filters) {
                 String value = filteredValue!=null?filteredValue.getValue():null;
                 filteredValue = filter.filterProperty(filteredValue, context);
                 String newValue = filteredValue!=null?filteredValue.getValue():null;
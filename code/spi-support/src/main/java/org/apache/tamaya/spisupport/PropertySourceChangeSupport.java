@@ -22,11 +22,17 @@ import org.apache.tamaya.spi.ChangeSupport;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -34,7 +40,21 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Simple support class for helping with change management on property sources.
+ * Simple support class for helping with change management on property sources. Supported property sources can be
+ * monitored for changes, either by periodically reloading them or, for local files, by watching the file.
+ * Monitoring runs on the scheduler provided by {@link ChangeMonitoring}.
+ * <p>
+ * By default listeners are called synchronously on the thread loading the changes. Optionally changes can be
+ * dispatched asynchronously, hereby the keys changed within a given time window are coalesced into a single event.
+ * Each listener receives its events in order, but independently of other listeners, so a slow listener does neither
+ * block loading nor other listeners. Asynchronous dispatch can also be enabled by setting the
+ * {@code tamaya.events.window} system/environment property to the window in milliseconds.
+ * </p>
+ * <p>
+ * The keys passed to the listeners are {@link ChangedKeys}, which also provide the {@link #getVersion() version},
+ * which includes all changes of the keys passed. If the version of the property source has changed since, further
+ * changes have not been delivered yet.
+ * </p>
  */
 public final class PropertySourceChangeSupport {
 
@@ -43,13 +63,21 @@ public final class PropertySourceChangeSupport {
     private ChangeSupport changeSupport;
     private PropertySource propertySource;
     private AtomicLong version = new AtomicLong();
-    private List<BiConsumer<Set<String>, PropertySource>> listeners  = new ArrayList<>();
+    private final List<ListenerDispatcher> listeners = new CopyOnWriteArrayList<>();
+    /** The window for coalescing changes in milliseconds, or a negative value for synchronous dispatch. */
+    private final long dispatchWindow;
     private int oldHash = 0;
-    private Map<String, PropertyValue> valueMap;
+    private volatile Map<String, PropertyValue> valueMap;
     private long timestamp;
-    private ScheduledFuture scheduleTask;
+    /** The version text, updated on each change, so {@link #getVersion()} does not allocate. */
+    private volatile String versionText = formatVersion(0L);
+    private volatile ReloadTask reloadTask;
+    private volatile Supplier<Map<String, PropertyValue>> propertySupplier;
 
-    private static ScheduledExecutorService executorService = Executors.newScheduledThreadPool(4);
+    /** The maximal factor the reload period is extended by, if reloading fails repeatedly. */
+    private static final int MAX_BACKOFF_FACTOR = 16;
+    /** The minimal delay in milliseconds, before an event rejected by the dispatch executor is dispatched again. */
+    private static final long MIN_REDISPATCH_DELAY = 10L;
 
     /**
      * Create a new property change support instance.
@@ -58,8 +86,42 @@ public final class PropertySourceChangeSupport {
      */
     public PropertySourceChangeSupport(ChangeSupport changeSupport,
                                        PropertySource propertySource){
+        this(changeSupport, propertySource, evaluateDispatchWindow());
+    }
+
+    /**
+     * Create a new property change support instance.
+     * @param changeSupport the support type, not null.
+     * @param propertySource the property source to pass to listeners, not null.
+     * @param dispatchWindow the window in milliseconds, within which changes are coalesced and dispatched
+     *                       asynchronously, or a negative value, for calling the listeners synchronously.
+     */
+    public PropertySourceChangeSupport(ChangeSupport changeSupport,
+                                       PropertySource propertySource, long dispatchWindow){
         this.changeSupport = Objects.requireNonNull(changeSupport);
         this.propertySource = Objects.requireNonNull(propertySource);
+        this.dispatchWindow = dispatchWindow;
+    }
+
+    /**
+     * Evaluates the default dispatch window, by reading the {@code tamaya.events.window}
+     * system/environment property.
+     * @return the window in milliseconds, or -1 for synchronous dispatch.
+     */
+    private static long evaluateDispatchWindow() {
+        String value = System.getProperty("tamaya.events.window");
+        if(value==null){
+            value = System.getenv("tamaya.events.window");
+        }
+        if(value==null || value.trim().isEmpty()){
+            return -1L;
+        }
+        try{
+            return Long.parseLong(value.trim());
+        }catch(NumberFormatException e){
+            LOG.warning("Invalid value for tamaya.events.window, using synchronous dispatch: " + value);
+            return -1L;
+        }
     }
 
     public ChangeSupport getChangeSupport() {
@@ -67,14 +129,21 @@ public final class PropertySourceChangeSupport {
     }
 
     public String getVersion() {
-        return version.get() + ": timestamp="+timestamp;
+        return versionText;
+    }
+
+    private String formatVersion(long version) {
+        return version + ": timestamp="+timestamp;
     }
 
     public void addChangeListener(BiConsumer<Set<String>, PropertySource> l){
         switch(changeSupport){
             case SUPPORTED:
-                if(!listeners.contains(l)){
-                    listeners.add(l);
+                Objects.requireNonNull(l);
+                synchronized (listeners) {
+                    if(getDispatcher(l)==null){
+                        listeners.add(new ListenerDispatcher(l));
+                    }
                 }
                 break;
             case UNSUPPORTED:
@@ -86,8 +155,22 @@ public final class PropertySourceChangeSupport {
 
     public void removeChangeListener(BiConsumer<Set<String>, PropertySource> l){
         if(changeSupport==ChangeSupport.SUPPORTED) {
-            listeners.remove(l);
+            synchronized (listeners) {
+                ListenerDispatcher dispatcher = getDispatcher(l);
+                if(dispatcher!=null){
+                    listeners.remove(dispatcher);
+                }
+            }
+        }
+    }
+
+    private ListenerDispatcher getDispatcher(BiConsumer<Set<String>, PropertySource> l){
+        for(ListenerDispatcher dispatcher:listeners){
+            if(dispatcher.listener.equals(l)){
+                return dispatcher;
+            }
         }
+        return null;
     }
 
     public void removeAllChangeListeners(){
@@ -99,17 +182,22 @@ public final class PropertySourceChangeSupport {
     public long load(Map<String, PropertyValue> properties){
         Objects.requireNonNull(properties);
         if(changeSupport==ChangeSupport.SUPPORTED) {
-            Set<String> changedKeys = calculateChangedKeys(this.valueMap, properties);
-            if(!changedKeys.isEmpty()) {
-                this.valueMap = properties;
-                version.incrementAndGet();
-                fireListeners(changedKeys);
+            // loads are serialized, so the changes are passed to the dispatchers in order of their versions.
+            synchronized (this){
+                Set<String> changedKeys = calculateChangedKeys(this.valueMap, properties);
+                if(!changedKeys.isEmpty()) {
+                    this.valueMap = properties;
+                    version.incrementAndGet();
+                    this.versionText = formatVersion(version.get());
+                    fireListeners(changedKeys, this.versionText);
+                }
             }
         }
         else{
             if(!properties.equals(this.valueMap)){
                 this.valueMap = properties;
                 version.incrementAndGet();
+                this.versionText = formatVersion(version.get());
             }
         }
         return version.get();
@@ -138,21 +226,23 @@ public final class PropertySourceChangeSupport {
         return result;
     }
 
-    private void fireListeners(Set<String> changedKeys) {
-        for(BiConsumer<Set<String>, PropertySource> l:this.listeners){
-            try{
-                l.accept(changedKeys, propertySource);
-            }catch(Exception e){
-                LOG.log(Level.WARNING, "Failed to load listener on property source change: " + l, e);
+    private void fireListeners(Set<String> changedKeys, String changedVersion) {
+        ChangedKeys keys = new ChangedKeys(changedKeys, changedVersion);
+        for(ListenerDispatcher dispatcher:this.listeners){
+            if(dispatchWindow<0){
+                dispatcher.deliver(keys);
+            }else{
+                dispatcher.dispatch(changedKeys, changedVersion);
             }
         }
     }
 
     public PropertyValue getValue(String key){
-        if(valueMap==null){
+        Map<String, PropertyValue> values = this.valueMap;
+        if(values==null){
             return null;
         }
-        return valueMap.get(key);
+        return values.get(key);
     }
 
     public Map<String, PropertyValue> getProperties(){
@@ -162,18 +252,77 @@ public final class PropertySourceChangeSupport {
         return Collections.unmodifiableMap(valueMap);
     }
 
+    /**
+     * Periodically reloads the properties, until {@link #cancelSchedule()} is called. If reloading fails, the
+     * period is doubled on each failure, up to {@value #MAX_BACKOFF_FACTOR} times the given period. Any
+     * monitoring scheduled before is cancelled.
+     * @param propertySupplier the supplier loading the properties, not null. The supplier should throw an
+     *                         exception, if the properties cannot be loaded, and may return null, if the
+     *                         properties are known to be unchanged.
+     * @param duration the reload period.
+     * @param timeUnit the time unit, not null.
+     */
     public void scheduleChangeMonitor(Supplier<Map<String, PropertyValue>> propertySupplier, long duration, TimeUnit timeUnit){
         if(changeSupport==ChangeSupport.SUPPORTED) {
             Objects.requireNonNull(propertySupplier);
-            scheduleTask = executorService.schedule(() -> {
-                load(propertySupplier.get());
-            }, duration, timeUnit);
+            ReloadTask task = new ReloadTask(this, timeUnit.toMillis(duration));
+            setReloadTask(task, propertySupplier);
+            task.schedule(task.period);
         }
     }
 
-    public void cancelSchedule(){
-        if(changeSupport==ChangeSupport.SUPPORTED && scheduleTask!=null){
-            scheduleTask.cancel(false);
+    /**
+     * Monitors the properties loaded from the given resource. Local files are watched for changes using a
+     * {@link java.nio.file.WatchService}, so changes are loaded immediately without any polling. Otherwise the
+     * properties are reloaded periodically, as done by {@link #scheduleChangeMonitor(Supplier, long, TimeUnit)}.
+     * @param resource the resource, not null.
+     * @param propertySupplier the supplier loading the properties, not null.
+     * @param duration the reload period, if the resource cannot be watched.
+     * @param timeUnit the time unit, not null.
+     */
+    public void scheduleChangeMonitor(URL resource, Supplier<Map<String, PropertyValue>> propertySupplier,
+                                      long duration, TimeUnit timeUnit){
+        if(changeSupport==ChangeSupport.SUPPORTED) {
+            Objects.requireNonNull(propertySupplier);
+            Path file = toFile(resource);
+            if(file!=null){
+                ReloadTask task = new ReloadTask(this, timeUnit.toMillis(duration));
+                Runnable handle = ChangeMonitoring.watch(file, task);
+                if(handle!=null){
+                    task.watchHandle = handle;
+                    setReloadTask(task, propertySupplier);
+                    return;
+                }
+            }
+            scheduleChangeMonitor(propertySupplier, duration, timeUnit);
+        }
+    }
+
+    private static Path toFile(URL resource){
+        if(resource==null || !"file".equalsIgnoreCase(resource.getProtocol())){
+            return null;
+        }
+        try{
+            return Paths.get(resource.toURI());
+        }catch(Exception e){
+            LOG.log(Level.FINE, "Cannot watch resource: " + resource, e);
+            return null;
+        }
+    }
+
+    private synchronized void setReloadTask(ReloadTask task, Supplier<Map<String, PropertyValue>> propertySupplier){
+        if(reloadTask!=null){
+            reloadTask.cancel();
+        }
+        // the supplier is held here, since it typically references the property source
+        this.propertySupplier = propertySupplier;
+        reloadTask = task;
+    }
+
+    public synchronized void cancelSchedule(){
+        if(changeSupport==ChangeSupport.SUPPORTED && reloadTask!=null){
+            reloadTask.cancel();
+            reloadTask = null;
         }
     }
 
@@ -186,4 +335,200 @@ public final class PropertySourceChangeSupport {
         }
         return result;
     }
+
+    /**
+     * Dispatcher for a single listener. Asynchronously dispatched changes are collected until the dispatch window
+     * has elapsed and then delivered as a single event on the dispatch executor of {@link ChangeMonitoring}. Changes
+     * arriving while an event is delivered are delivered afterwards, so events are never delivered concurrently.
+     */
+    private final class ListenerDispatcher implements Runnable{
+        private final BiConsumer<Set<String>, PropertySource> listener;
+        private Set<String> pendingKeys = new HashSet<>();
+        /** The version including all changes of the pending keys. */
+        private String pendingVersion;
+        private boolean scheduled;
+
+        ListenerDispatcher(BiConsumer<Set<String>, PropertySource> listener){
+            this.listener = listener;
+        }
+
+        void dispatch(Set<String> changedKeys, String changedVersion){
+            synchronized (this){
+                pendingKeys.addAll(changedKeys);
+                pendingVersion = changedVersion;
+                if(scheduled){
+                    return;
+                }
+                scheduled = true;
+            }
+            try{
+                ChangeMonitoring.getScheduler().schedule(this::submit, dispatchWindow, TimeUnit.MILLISECONDS);
+            }catch(RuntimeException e){
+                synchronized (this){
+                    scheduled = false;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Submits the delivery to the dispatch executor. If the executor is saturated, the delivery is retried
+         * later, the changes arriving meanwhile being coalesced.
+         */
+        private void submit(){
+            ExecutorService executor = ChangeMonitoring.getDispatchExecutor();
+            try{
+                executor.execute(this);
+            }catch(RejectedExecutionException e){
+                if(executor.isShutdown()){
+                    LOG.warning("Dispatch executor is shut down, change event is delivered with the next change: "
+                            + listener);
+                    synchronized (this){
+                        scheduled = false;
+                    }
+                    return;
+                }
+                ChangeMonitoring.getScheduler().schedule(this::submit,
+                        Math.max(dispatchWindow, MIN_REDISPATCH_DELAY), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            while(true){
+                ChangedKeys keys;
+                synchronized (this){
+                    if(pendingKeys.isEmpty()){
+                        scheduled = false;
+                        return;
+                    }
+                    keys = new ChangedKeys(pendingKeys, pendingVersion);
+                    pendingKeys = new HashSet<>();
+                }
+                if(listeners.contains(this)){
+                    deliver(keys);
+                }
+            }
+        }
+
+        void deliver(ChangedKeys changedKeys){
+            try{
+                listener.accept(changedKeys, propertySource);
+            }catch(Exception e){
+                LOG.log(Level.WARNING, "Failed to load listener on property source change: " + listener, e);
+            }
+        }
+    }
+
+    /**
+     * The keys passed to change listeners, along with the version of the property source including all changes of
+     * the keys. This set is unmodifiable.
+     */
+    public static final class ChangedKeys extends AbstractSet<String> {
+        private final Set<String> keys;
+        private final String version;
+
+        ChangedKeys(Set<String> keys, String version){
+            this.keys = Collections.unmodifiableSet(keys);
+            this.version = version;
+        }
+
+        /**
+         * Get the version of the property source, which includes all changes of these keys. Changes of the
+         * property source with a later version are delivered with subsequent events.
+         * @return the version, as returned by {@link PropertySourceChangeSupport#getVersion()}.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return keys.iterator();
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return keys.contains(o);
+        }
+    }
+
+    /**
+     * Task reloading the properties, either periodically or when triggered by a file watcher. The task only holds a
+     * weak reference to the change support and stops, once it has been garbage collected.
+     */
+    private static final class ReloadTask implements Runnable{
+        private final WeakReference<PropertySourceChangeSupport> changeSupport;
+        private final long period;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+        private volatile Runnable watchHandle;
+        private long delay;
+
+        ReloadTask(PropertySourceChangeSupport changeSupport, long period){
+            this.changeSupport = new WeakReference<>(changeSupport);
+            this.period = Math.max(1L, period);
+            this.delay = this.period;
+        }
+
+        private void schedule(long delay){
+            if(!cancelled){
+                future = ChangeMonitoring.getScheduler().schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void cancel(){
+            cancelled = true;
+            ScheduledFuture<?> f = future;
+            if(f!=null){
+                f.cancel(false);
+            }
+            Runnable handle = watchHandle;
+            if(handle!=null){
+                handle.run();
+            }
+        }
+
+        @Override
+        public void run() {
+            PropertySourceChangeSupport support = changeSupport.get();
+            if(support==null){
+                cancel();
+                return;
+            }
+            pending.set(true);
+            // changes signalled during a running reload are loaded by the running task
+            while(!cancelled && pending.get() && running.compareAndSet(false, true)){
+                try{
+                    boolean failed = false;
+                    while(pending.getAndSet(false)){
+                        try{
+                            Map<String, PropertyValue> properties = support.propertySupplier.get();
+                            if(properties!=null){
+                                support.load(properties);
+                            }
+                            failed = false;
+                        }catch(Exception e){
+                            failed = true;
+                            LOG.log(Level.WARNING, "Failed to reload property source: "
+                                    + support.propertySource.getName(), e);
+                        }
+                    }
+                    delay = failed?Math.min(delay * 2, period * MAX_BACKOFF_FACTOR):period;
+                    if(watchHandle==null || failed){
+                        schedule(delay);
+                    }
+                }finally{
+                    running.set(false);
+                }
+            }
+        }
+    }
 }
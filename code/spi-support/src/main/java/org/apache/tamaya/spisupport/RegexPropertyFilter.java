@@ -22,18 +22,26 @@ import org.apache.tamaya.spi.FilterContext;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertyValue;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Predicate filtering using a regex expression operating on the key. It allows either
  * to define the target keys to be selected (includes), or to be excluded (excludes).
+ * The expressions are compiled once when set. Literal keys and literal prefixes followed by {@code .*} are
+ * matched without regular expression evaluation, all other expressions are combined into a single pattern, where
+ * possible.
  */
 public final class RegexPropertyFilter implements PropertyFilter {
     /** The expression used to include entries that match. */
-    private List<String> includes;
+    private volatile List<String> includes;
     /** The expression used to exclude entries that match. */
-    private List<String> excludes;
+    private volatile List<String> excludes;
+    /** The compiled include expressions, or null. */
+    private volatile KeyMatcher includeMatcher;
+    /** The compiled exclude expressions, or null. */
+    private volatile KeyMatcher excludeMatcher;
 
     /**
      * Sets the regex expression to be applied on the key to filter the corresponding entry
@@ -41,6 +49,7 @@ public final class RegexPropertyFilter implements PropertyFilter {
      * @param expressions the regular expression for inclusion, not null.
      */
     public void setIncludes(String... expressions){
+        this.includeMatcher = new KeyMatcher(expressions);
         this.includes = Arrays.asList(expressions);
     }
 
@@ -50,27 +59,22 @@ public final class RegexPropertyFilter implements PropertyFilter {
      * @param expressions the regular expressions for exclusion, not null.
      */
     public void setExcludes(String... expressions){
+        this.excludeMatcher = new KeyMatcher(expressions);
         this.excludes= Arrays.asList(expressions);
     }
 
     @Override
     public PropertyValue filterProperty(PropertyValue valueToBeFiltered, FilterContext context) {
-        if(includes!=null){
-            for(String expression:includes){
-                if(valueToBeFiltered.getQualifiedKey().matches(expression)){
-                    return valueToBeFiltered;
-                }
-            }
-            return null;
+        KeyMatcher includeMatcher = this.includeMatcher;
+        KeyMatcher excludeMatcher = this.excludeMatcher;
+        if(includeMatcher==null && excludeMatcher==null){
+            return valueToBeFiltered;
         }
-        if(excludes!=null){
-            for(String expression:excludes){
-                if(valueToBeFiltered.getQualifiedKey().matches(expression)){
-                    return null;
-                }
-            }
+        String key = valueToBeFiltered.getQualifiedKey();
+        if(includeMatcher!=null){
+            return includeMatcher.matches(key)?valueToBeFiltered:null;
         }
-        return valueToBeFiltered;
+        return excludeMatcher.matches(key)?null:valueToBeFiltered;
     }
 
     @Override
@@ -81,4 +85,133 @@ public final class RegexPropertyFilter implements PropertyFilter {
                 '}';
     }
 
+    /**
+     * Matcher for a set of regular expressions, matching if any of the expressions matches the full key.
+     */
+    static final class KeyMatcher{
+        /** Characters with special meaning in regular expressions. */
+        private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+        /** The literal keys matched. */
+        private final Set<String> literals = new HashSet<>();
+        /** The literal prefixes matched, for expressions of the form {@code prefix.*}. */
+        private final List<String> prefixes = new ArrayList<>();
+        /** The combined pattern of all other expressions, or null. */
+        private final Pattern pattern;
+        /** Expressions, which cannot be combined, e.g. because of back references or duplicate group names. */
+        private final List<Pattern> patterns = new ArrayList<>();
+
+        KeyMatcher(String... expressions){
+            List<Pattern> combinable = new ArrayList<>();
+            for(String expression:expressions){
+                Objects.requireNonNull(expression);
+                StringBuilder literal = new StringBuilder();
+                int end = parseLiteral(expression, literal);
+                if(end==expression.length()){
+                    literals.add(literal.toString());
+                }else if(end>=0 && expression.substring(end).equals(".*")){
+                    prefixes.add(literal.toString());
+                }else if(hasBackReference(expression)){
+                    patterns.add(Pattern.compile(expression));
+                }else{
+                    // compile separately first, so invalid expressions are reported as such
+                    combinable.add(Pattern.compile(expression));
+                }
+            }
+            this.pattern = combine(combinable);
+            if(this.pattern==null){
+                patterns.addAll(combinable);
+            }
+        }
+
+        /**
+         * Combines the patterns into a single alternation.
+         * @param combinable the patterns, not null.
+         * @return the combined pattern, or null, if there are no patterns or the combined pattern does not compile,
+         * e.g. because the expressions define the same named group.
+         */
+        private static Pattern combine(List<Pattern> combinable){
+            if(combinable.size()<2){
+                return combinable.isEmpty()?null:combinable.get(0);
+            }
+            StringBuilder combined = new StringBuilder();
+            for(Pattern p:combinable){
+                if(combined.length()>0){
+                    combined.append('|');
+                }
+                combined.append("(?:").append(p.pattern()).append(')');
+            }
+            try{
+                return Pattern.compile(combined.toString());
+            }catch(PatternSyntaxException e){
+                return null;
+            }
+        }
+
+        /**
+         * Parses the literal part at the start of the expression, resolving escaped meta characters.
+         * @param expression the expression, not null.
+         * @param literal the builder, where the literal part is appended.
+         * @return the end index of the literal part, or -1, if it is followed by a quantifier.
+         */
+        private static int parseLiteral(String expression, StringBuilder literal){
+            int i = 0;
+            while(i<expression.length()){
+                char c = expression.charAt(i);
+                if(c=='\\' && i+1<expression.length() && META_CHARACTERS.indexOf(expression.charAt(i+1))>=0){
+                    literal.append(expression.charAt(i+1));
+                    i+=2;
+                }else if(META_CHARACTERS.indexOf(c)<0){
+                    literal.append(c);
+                    i++;
+                }else{
+                    break;
+                }
+            }
+            // a quantifier following a literal applies to its last character, so it is not part of the literal
+            if(i<expression.length() && i>0 && "?*+{".indexOf(expression.charAt(i))>=0){
+                return -1;
+            }
+            return i;
+        }
+
+        private static boolean hasBackReference(String expression){
+            for(int i=0;i<expression.length()-1;i++){
+                if(expression.charAt(i)=='\\'){
+                    char next = expression.charAt(i+1);
+                    if(Character.isDigit(next) || next=='k'){
+                        return true;
+                    }
+                    i++;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks if any expression matches the full key.
+         * @param key the key, not null.
+         * @return true, if any expression matches.
+         */
+        boolean matches(String key){
+            if(literals.contains(key)){
+                return true;
+            }
+            for(String prefix:prefixes){
+                if(key.startsWith(prefix)){
+                    return true;
+                }
+            }
+            if(pattern!=null && pattern.matcher(key).matches()){
+                return true;
+            }
+            for(Pattern p:patterns){
+                if(p.matcher(key).matches()){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Precomputed index of the services registered in the {@code META-INF/services} resources of a single classpath
+ * entry, generated at build time by the {@link ServiceIndexProcessor}. The {@link DefaultServiceContext} creates
+ * services using the indices found, if all resources registering a service type are covered by an index,
+ * and falls back to the {@link java.util.ServiceLoader} otherwise.
+ */
+public interface ServiceIndex {
+
+    /**
+     * Get the service types indexed.
+     * @return the names of the service types, never null.
+     */
+    Set<String> getServiceTypes();
+
+    /**
+     * Get the implementations registered for a service type.
+     * @param serviceType the name of the service type, not null.
+     * @return the implementations, in order of registration, never null.
+     */
+    List<Entry> getEntries(String serviceType);
+
+    /**
+     * A service implementation, with its priority resolved at build time.
+     */
+    final class Entry {
+        private final String className;
+        private final int priority;
+        private final Supplier<?> factory;
+
+        /**
+         * Creates a new entry.
+         * @param className the binary name of the implementation class, not null.
+         * @param priority the priority of the implementation.
+         * @param factory the factory calling the constructor of the implementation, or null, if the constructor
+         *                is not accessible to the index and has to be called reflectively.
+         */
+        public Entry(String className, int priority, Supplier<?> factory){
+            this.className = Objects.requireNonNull(className);
+            this.priority = priority;
+            this.factory = factory;
+        }
+
+        /**
+         * Get the binary name of the implementation class.
+         * @return the class name, never null.
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Get the priority of the implementation, as defined by {@link javax.annotation.Priority}.
+         * @return the priority, by default 1.
+         */
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * Get the factory of the implementation.
+         * @return the factory, or null, if the implementation must be created reflectively.
+         */
+        public Supplier<?> getFactory() {
+            return factory;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "className=" + className +
+                    ", priority=" + priority +
+                    '}';
+        }
+    }
+}
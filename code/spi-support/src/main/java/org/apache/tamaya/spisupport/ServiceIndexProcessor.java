@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Annotation processor generating a {@link ServiceIndex} for the services registered in the
+ * {@code META-INF/services} resources of the compiled module. The resources must be present in the class output
+ * directory when compiling, as is the case with Maven. The index is a class calling the constructors of the
+ * services directly, with the priorities of the services already resolved; it is registered as service
+ * {@code org.apache.tamaya.spisupport.ServiceIndex}.
+ * <p>The processor is not registered for automatic discovery, it must be enabled explicitly, e.g. using
+ * {@code -processor org.apache.tamaya.spisupport.ServiceIndexProcessor}. The name of the generated class is
+ * {@code TamayaServiceIndex} in the package of the first service implementation, it can be set using the
+ * {@code -Atamaya.serviceindex.class=<class name>} option.</p>
+ */
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    /** Option setting the name of the generated class. */
+    public static final String CLASS_OPTION = "tamaya.serviceindex.class";
+
+    private static final String SERVICES_DIR = "META-INF/services";
+    private static final String INDEX_SERVICE = ServiceIndex.class.getName();
+    private static final String PRIORITY_ANNOTATION = "javax.annotation.Priority";
+    /** Service types looked up, if the service resources cannot be listed. */
+    private static final String[] DEFAULT_SERVICE_TYPES = {
+            "org.apache.tamaya.spi.PropertySource",
+            "org.apache.tamaya.spi.PropertySourceProvider",
+            "org.apache.tamaya.spi.PropertyFilter",
+            "org.apache.tamaya.spi.PropertyConverter",
+            "org.apache.tamaya.spi.ConfigurationProviderSpi",
+            "org.apache.tamaya.spi.ConfigurationBuilder",
+            "org.apache.tamaya.spi.ServiceContext",
+            "org.apache.tamaya.spisupport.ConfigValueEvaluator",
+            "org.apache.tamaya.spisupport.MetadataProvider",
+    };
+
+    private boolean generated;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(CLASS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if(generated || roundEnv.processingOver()){
+            return false;
+        }
+        generated = true;
+        try {
+            Map<String, List<String>> services = readServices();
+            if(!services.isEmpty()){
+                generate(services);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate service index: " + e);
+        }
+        return false;
+    }
+
+    /**
+     * Reads the service registrations from the class output.
+     * @return the implementation class names, by service type, never null.
+     */
+    private Map<String, List<String>> readServices() throws IOException {
+        Map<String, List<String>> services = new TreeMap<>();
+        for(String serviceType:listServiceTypes()){
+            if(serviceType.equals(INDEX_SERVICE) || serviceType.startsWith("javax.")){
+                continue;
+            }
+            List<String> classNames = readServiceFile(serviceType);
+            if(classNames!=null && !classNames.isEmpty()){
+                services.put(serviceType, classNames);
+            }
+        }
+        return services;
+    }
+
+    private Collection<String> listServiceTypes() {
+        try {
+            // file objects cannot denote directories, so the directory is evaluated from a file within.
+            FileObject probe = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    SERVICES_DIR + "/.probe");
+            String[] names = new File(probe.toUri()).getParentFile().list();
+            if(names!=null){
+                return Arrays.asList(names);
+            }
+        } catch (Exception e) {
+            // cannot be listed
+        }
+        return Arrays.asList(DEFAULT_SERVICE_TYPES);
+    }
+
+    private List<String> readServiceFile(String serviceType) {
+        FileObject file;
+        try {
+            file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    SERVICES_DIR + '/' + serviceType);
+        } catch (Exception e) {
+            return null;
+        }
+        List<String> classNames = new ArrayList<>();
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(),
+                StandardCharsets.UTF_8))){
+            String line;
+            while((line = reader.readLine())!=null){
+                int comment = line.indexOf('#');
+                if(comment>=0){
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if(!line.isEmpty() && !classNames.contains(line)){
+                    classNames.add(line);
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return classNames;
+    }
+
+    private void generate(Map<String, List<String>> services) throws IOException {
+        String className = processingEnv.getOptions().get(CLASS_OPTION);
+        if(className==null || className.isEmpty()){
+            String first = services.values().iterator().next().get(0);
+            int pos = first.lastIndexOf('.');
+            className = (pos>0?first.substring(0, pos + 1):"") + "TamayaServiceIndex";
+        }
+        int pos = className.lastIndexOf('.');
+        String packageName = pos>0?className.substring(0, pos):null;
+        String simpleName = className.substring(pos + 1);
+        Filer filer = processingEnv.getFiler();
+        try(Writer out = filer.createSourceFile(className).openWriter()){
+            writeSource(out, packageName, simpleName, services);
+        }
+        try(Writer out = new OutputStreamWriter(filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                SERVICES_DIR + '/' + INDEX_SERVICE).openOutputStream(), StandardCharsets.UTF_8)){
+            out.write(className + "\n");
+        }
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "Generated service index " + className + " for " + services.size() + " service types.");
+    }
+
+    private void writeSource(Writer out, String packageName, String simpleName, Map<String, List<String>> services)
+            throws IOException {
+        if(packageName!=null){
+            out.write("package " + packageName + ";\n\n");
+        }
+        out.write("import org.apache.tamaya.spisupport.ServiceIndex;\n\n");
+        out.write("import java.util.*;\n\n");
+        out.write("/**\n * Service index generated by {@code " + getClass().getName() + "}.\n */\n");
+        out.write("public final class " + simpleName + " implements ServiceIndex {\n\n");
+        out.write("    private static final Set<String> SERVICE_TYPES = Collections.unmodifiableSet(" +
+                "new HashSet<>(Arrays.asList(\n");
+        Iterator<String> types = services.keySet().iterator();
+        while(types.hasNext()){
+            out.write("            \"" + types.next() + "\"" + (types.hasNext()?",\n":"\n"));
+        }
+        out.write("    )));\n\n");
+        out.write("    @Override\n    public Set<String> getServiceTypes() {\n        return SERVICE_TYPES;\n    }\n\n");
+        out.write("    @Override\n    public List<Entry> getEntries(String serviceType) {\n");
+        out.write("        switch (serviceType) {\n");
+        for(Map.Entry<String, List<String>> en:services.entrySet()){
+            out.write("            case \"" + en.getKey() + "\":\n");
+            out.write("                return Arrays.asList(\n");
+            Iterator<String> classNames = en.getValue().iterator();
+            while(classNames.hasNext()){
+                out.write("                        " + createEntry(classNames.next())
+                        + (classNames.hasNext()?",\n":"\n"));
+            }
+            out.write("                );\n");
+        }
+        out.write("            default:\n                return Collections.emptyList();\n        }\n    }\n}\n");
+    }
+
+    /**
+     * Creates the source of an index entry. The priority is resolved from the {@code @Priority} annotation of the
+     * implementation class, the constructor is called directly, if it is accessible.
+     * @param binaryName the binary class name, as registered.
+     * @return the source code, never null.
+     */
+    private String createEntry(String binaryName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+        int priority = 1;
+        String factory = "null";
+        if(type==null){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Service implementation not found, will be created reflectively: " + binaryName);
+        }else{
+            priority = getPriority(type);
+            if(isConstructorAccessible(type)){
+                factory = type.getQualifiedName() + "::new";
+            }
+        }
+        return "new Entry(\"" + binaryName + "\", " + priority + ", " + factory + ")";
+    }
+
+    private static int getPriority(TypeElement type) {
+        for(AnnotationMirror annotation:type.getAnnotationMirrors()){
+            if(((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(PRIORITY_ANNOTATION)){
+                for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> en:
+                        annotation.getElementValues().entrySet()){
+                    if(en.getKey().getSimpleName().contentEquals("value")){
+                        return (Integer)en.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean isConstructorAccessible(TypeElement type) {
+        if(type.getModifiers().contains(Modifier.ABSTRACT)){
+            return false;
+        }
+        Element element = type;
+        while(element instanceof TypeElement){
+            if(!element.getModifiers().contains(Modifier.PUBLIC)){
+                return false;
+            }
+            Element enclosing = element.getEnclosingElement();
+            if(enclosing instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC)){
+                return false;
+            }
+            element = enclosing;
+        }
+        for(ExecutableElement constructor:ElementFilter.constructorsIn(type.getEnclosedElements())){
+            if(constructor.getParameters().isEmpty()){
+                return constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getThrownTypes().isEmpty();
+            }
+        }
+        return false;
+    }
+}
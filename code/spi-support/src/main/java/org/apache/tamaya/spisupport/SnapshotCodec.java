@@ -0,0 +1,400 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary format for configuration and property source snapshots, as alternative to Java serialization.
+ * <p>A stream starts with a header, followed by records, each starting with a tag: the attributes of a configuration
+ * snapshot, a property source with its values, or the end of the stream. Keys, metadata keys and metadata values,
+ * which e.g. hold the sources of the values, are written once per stream into a string table and referenced
+ * by index afterwards. All lengths, counts and indices are written as variable length integers.</p>
+ * <p>Only leaf values ({@link PropertyValue#isLeaf()}) are supported, which is what property sources provide.</p>
+ */
+public final class SnapshotCodec {
+
+    private static final byte[] MAGIC = {'T', 'S', 'N', 'P'};
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TAG_END = 0;
+    private static final int TAG_PROPERTY_SOURCE = 1;
+    private static final int TAG_CONFIGURATION = 2;
+
+    /** Encoding of a null string. */
+    private static final int STRING_NULL = 0;
+    /** Encoding of a string not yet contained in the string table, followed by the string. */
+    private static final int STRING_NEW = 1;
+    /** Offset of references to the string table. */
+    private static final int STRING_REF = 2;
+
+    /**
+     * Private singleton constructor.
+     */
+    private SnapshotCodec(){}
+
+    /**
+     * Writes a configuration snapshot, including all its property sources.
+     * @param snapshot the snapshot, not null.
+     * @param out the target stream, not null. The stream is not closed.
+     * @throws IOException if writing fails, or a value is not supported.
+     */
+    public static void writeSnapshot(DefaultConfigurationSnapshot snapshot, OutputStream out) throws IOException {
+        Writer writer = new Writer(out);
+        writer.writeConfiguration(snapshot);
+        for(PropertySource ps:snapshot.getContext().getPropertySources()){
+            writer.write(ps);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Reads a configuration snapshot written by {@link #writeSnapshot(DefaultConfigurationSnapshot, OutputStream)}.
+     * The snapshot uses the property sources read, and the filters, converters and service context of the
+     * given context.
+     * @param in the source stream, not null. The stream is not closed, and is not read beyond the end of the
+     *           snapshot, so it can be used for reading subsequent data. The stream is read byte by byte, so passing
+     *           a buffered stream is recommended.
+     * @param context the context providing filters, converters and the service context, not null.
+     * @return the snapshot read, never null.
+     * @throws IOException if reading fails or the stream is invalid.
+     */
+    public static DefaultConfigurationSnapshot readSnapshot(InputStream in, ConfigurationContext context)
+            throws IOException {
+        Objects.requireNonNull(context);
+        Reader reader = new Reader(in);
+        List<PropertySource> propertySources = new ArrayList<>();
+        DefaultPropertySourceSnapshot ps;
+        while((ps = reader.read())!=null){
+            propertySources.add(ps);
+        }
+        if(reader.id==null){
+            throw new IOException("Stream does not contain a configuration snapshot.");
+        }
+        MetadataProvider metadataProvider = context.getServiceContext().getService(MetadataProvider.class,
+                DefaultMetaDataProvider::new);
+        DefaultConfigurationContext snapshotContext = new DefaultConfigurationContext(context.getServiceContext(),
+                context.getPropertyFilters(), propertySources, context.getPropertyConverters(), metadataProvider);
+        return new DefaultConfigurationSnapshot(new DefaultConfiguration(snapshotContext), reader.flat,
+                reader.id, reader.frozenAt);
+    }
+
+    /**
+     * Streaming writer. Property sources are written one by one, {@link #close()} terminates the stream.
+     * This class is not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+        private final OutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private boolean finished;
+
+        /**
+         * Creates a new writer and writes the header.
+         * @param out the target stream, not null.
+         * @throws IOException if writing fails.
+         */
+        public Writer(OutputStream out) throws IOException {
+            this.out = new BufferedOutputStream(Objects.requireNonNull(out));
+            this.out.write(MAGIC);
+            writeVarInt(FORMAT_VERSION);
+        }
+
+        /**
+         * Writes the current values of a property source.
+         * @param propertySource the property source, not null.
+         * @throws IOException if writing fails, or a value is not a leaf value.
+         */
+        public void write(PropertySource propertySource) throws IOException {
+            checkNotFinished();
+            Map<String, PropertyValue> properties = propertySource.getProperties();
+            writeVarInt(TAG_PROPERTY_SOURCE);
+            writeString(propertySource.getName());
+            writeVarLong(zigZag(PropertySourceComparator.getOrdinal(propertySource)));
+            writeVarLong(zigZag(propertySource instanceof DefaultPropertySourceSnapshot?
+                    ((DefaultPropertySourceSnapshot)propertySource).getFrozenAt():System.currentTimeMillis()));
+            writeVarInt(properties.size());
+            for(Map.Entry<String, PropertyValue> en:properties.entrySet()){
+                PropertyValue value = en.getValue();
+                if(!value.isLeaf()){
+                    throw new IOException("Unsupported value type " + value.getValueType() + " of key: "
+                            + en.getKey());
+                }
+                writeTableString(en.getKey());
+                writeTableString(value.getKey());
+                writeString(value.getValue());
+                Map<String, String> meta = value.getMeta();
+                writeVarInt(meta.size());
+                for(Map.Entry<String, String> metaEntry:meta.entrySet()){
+                    writeTableString(metaEntry.getKey());
+                    writeTableString(metaEntry.getValue());
+                }
+            }
+        }
+
+        void writeConfiguration(DefaultConfigurationSnapshot snapshot) throws IOException {
+            checkNotFinished();
+            writeVarInt(TAG_CONFIGURATION);
+            writeVarLong(snapshot.getId().getMostSignificantBits());
+            writeVarLong(snapshot.getId().getLeastSignificantBits());
+            writeVarLong(zigZag(snapshot.getTimestamp()));
+            out.write(snapshot.isFlat()?1:0);
+        }
+
+        /**
+         * Terminates the stream and flushes it, without closing the underlying stream.
+         * @throws IOException if writing fails.
+         */
+        public void finish() throws IOException {
+            if(!finished){
+                writeVarInt(TAG_END);
+                finished = true;
+            }
+            out.flush();
+        }
+
+        /**
+         * Terminates and closes the stream.
+         * @throws IOException if writing fails.
+         */
+        @Override
+        public void close() throws IOException {
+            finish();
+            out.close();
+        }
+
+        private void checkNotFinished(){
+            if(finished){
+                throw new IllegalStateException("Stream already finished.");
+            }
+        }
+
+        private void writeTableString(String value) throws IOException {
+            if(value==null){
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            Integer index = strings.get(value);
+            if(index!=null){
+                writeVarInt(STRING_REF + index);
+                return;
+            }
+            strings.put(value, strings.size());
+            writeVarInt(STRING_NEW);
+            writeBytes(value);
+        }
+
+        private void writeString(String value) throws IOException {
+            if(value==null){
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            writeVarInt(STRING_NEW);
+            writeBytes(value);
+        }
+
+        private void writeBytes(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while((value & ~0x7FL)!=0L){
+                out.write((int)((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int)value);
+        }
+    }
+
+    /**
+     * Streaming reader. The source stream is read unbuffered and never beyond the end of the snapshot, so passing
+     * a buffered stream is recommended. This class is not thread-safe.
+     */
+    public static final class Reader implements Closeable {
+        private final InputStream in;
+        private final List<String> strings = new ArrayList<>();
+        private boolean finished;
+        private UUID id;
+        private long frozenAt;
+        private boolean flat;
+
+        /**
+         * Creates a new reader and reads the header.
+         * @param in the source stream, not null.
+         * @throws IOException if reading fails, or the stream has an unsupported format.
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = Objects.requireNonNull(in);
+            for(byte b:MAGIC){
+                if(readByte()!=b){
+                    throw new IOException("Not a snapshot stream.");
+                }
+            }
+            int version = readVarInt();
+            if(version!=FORMAT_VERSION){
+                throw new IOException("Unsupported snapshot format version: " + version);
+            }
+        }
+
+        /**
+         * Reads the next property source.
+         * @return the property source, or null, if the end of the stream has been reached.
+         * @throws IOException if reading fails, or the stream is invalid.
+         */
+        public DefaultPropertySourceSnapshot read() throws IOException {
+            while(!finished){
+                int tag = readVarInt();
+                switch(tag){
+                    case TAG_END:
+                        finished = true;
+                        break;
+                    case TAG_CONFIGURATION:
+                        id = new UUID(readVarLong(), readVarLong());
+                        frozenAt = unZigZag(readVarLong());
+                        flat = readByte()!=0;
+                        break;
+                    case TAG_PROPERTY_SOURCE:
+                        return readPropertySource();
+                    default:
+                        throw new IOException("Invalid record tag: " + tag);
+                }
+            }
+            return null;
+        }
+
+        private DefaultPropertySourceSnapshot readPropertySource() throws IOException {
+            String name = readString();
+            int ordinal = (int)unZigZag(readVarLong());
+            long timestamp = unZigZag(readVarLong());
+            int size = readVarInt();
+            Map<String, PropertyValue> properties = new HashMap<>((int)(size / 0.75f) + 1);
+            for(int i=0;i<size;i++){
+                String key = readTableString();
+                PropertyValue value = PropertyValue.createValue(readTableString(), readString());
+                int metaSize = readVarInt();
+                if(metaSize>0){
+                    Map<String, String> meta = new HashMap<>((int)(metaSize / 0.75f) + 1);
+                    for(int m=0;m<metaSize;m++){
+                        meta.put(readTableString(), readTableString());
+                    }
+                    value.setMeta(meta);
+                }
+                properties.put(key, value.immutable());
+            }
+            return new DefaultPropertySourceSnapshot(name, ordinal, timestamp, properties);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readTableString() throws IOException {
+            int code = readVarInt();
+            if(code==STRING_NULL){
+                return null;
+            }
+            if(code==STRING_NEW){
+                String value = readBytes();
+                strings.add(value);
+                return value;
+            }
+            int index = code - STRING_REF;
+            if(index<0 || index>=strings.size()){
+                throw new IOException("Invalid string reference: " + index);
+            }
+            return strings.get(index);
+        }
+
+        private String readString() throws IOException {
+            int code = readVarInt();
+            if(code==STRING_NULL){
+                return null;
+            }
+            if(code!=STRING_NEW){
+                throw new IOException("Invalid string code: " + code);
+            }
+            return readBytes();
+        }
+
+        private String readBytes() throws IOException {
+            int length = readVarInt();
+            if(length<0){
+                throw new IOException("Invalid string length: " + length);
+            }
+            byte[] bytes = new byte[length];
+            int pos = 0;
+            while(pos<length){
+                int read = in.read(bytes, pos, length - pos);
+                if(read<0){
+                    throw new EOFException();
+                }
+                pos += read;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if(b<0){
+                throw new EOFException();
+            }
+            return (byte)b;
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if((value >>> 32)!=0L){
+                throw new IOException("Invalid variable length integer.");
+            }
+            return (int)value;
+        }
+
+        private long readVarLong() throws IOException {
+            long result = 0L;
+            for(int shift=0;shift<64;shift+=7){
+                int b = readByte();
+                result |= (long)(b & 0x7F) << shift;
+                if((b & 0x80)==0){
+                    return result;
+                }
+            }
+            throw new IOException("Invalid variable length integer.");
+        }
+    }
+
+    private static long zigZag(long value){
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value){
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
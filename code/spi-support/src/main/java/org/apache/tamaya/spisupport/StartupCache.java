@@ -0,0 +1,599 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent cache of the results of startup discovery, which are the same on every start with the same classpath:
+ * the service implementations found by the {@link java.util.ServiceLoader}, the target types of the property
+ * converters, and the values of property sources read from classpath resources. Values depending on the
+ * process, like system properties or environment variables, are never cached.
+ * <p>The cache is written into a file named by a fingerprint of the classpath, which covers the paths, sizes and
+ * modification times of all jars, and of the service and configuration files of all directories. Class files in
+ * directories are not covered, so the target types of converters loaded from directories are never cached, see
+ * {@link #isFingerprinted(Class)}. A later start with the same classpath maps the file into memory and skips
+ * service discovery and resource parsing. The cache is disabled by default, it is enabled by setting the
+ * {@code tamaya.startup.cache} system/environment property to {@code true}, for using the directory
+ * {@code .tamaya/startup-cache} in the home directory of the user, or to the path of the cache directory.</p>
+ * <p>As the cache determines the services instantiated and configuration values, it is only read, if the cache
+ * directory and file are owned by the current user and are not writable by other users. Directories created
+ * are only accessible by the current user, where supported by the file system.</p>
+ * <p>Entries added are written on {@link #store()}, which is also called on JVM shutdown.</p>
+ */
+public final class StartupCache {
+
+    private static final Logger LOG = Logger.getLogger(StartupCache.class.getName());
+
+    private static final String CACHE_PROPERTY = "tamaya.startup.cache";
+    private static final String FILE_PREFIX = "tamaya-startup-";
+    private static final String FILE_SUFFIX = ".cache";
+    private static final int MAGIC = 0x54414d43;
+    private static final int FORMAT_VERSION = 1;
+    /** The files of directory classpath entries covered by the fingerprint. */
+    private static final String[] FINGERPRINTED_FILES = {
+            "META-INF/javaconfiguration.properties", "META-INF/javaconfiguration.xml"};
+    private static final String SERVICES_DIR = "META-INF/services";
+
+    private static final Map<ClassLoader, StartupCache> CACHES = new WeakHashMap<>();
+    private static boolean shutdownHookRegistered;
+
+    private final Path directory;
+    private final Path file;
+    private final Map<String, List<String>> services = new HashMap<>();
+    private final Map<String, String> converterTargets = new HashMap<>();
+    private final Map<String, Map<String, PropertyValue>> propertySources = new HashMap<>();
+    private boolean loaded;
+    private boolean modified;
+
+    private StartupCache(Path directory, String fingerprint){
+        this.directory = directory;
+        this.file = directory.resolve(FILE_PREFIX + fingerprint + FILE_SUFFIX);
+    }
+
+    /**
+     * Get the startup cache for the given class loader.
+     * @param classLoader the class loader, may be null.
+     * @return the cache, or {@code null}, if the cache is disabled or the classpath of the class loader cannot
+     * be evaluated.
+     */
+    public static StartupCache of(ClassLoader classLoader){
+        if(classLoader==null){
+            return null;
+        }
+        Path directory = evaluateDirectory();
+        if(directory==null){
+            return null;
+        }
+        synchronized (CACHES){
+            StartupCache cache = CACHES.get(classLoader);
+            if(cache==null || !cache.directory.equals(directory)){
+                String fingerprint = fingerprint(classLoader);
+                if(fingerprint==null){
+                    return null;
+                }
+                cache = new StartupCache(directory, fingerprint);
+                CACHES.put(classLoader, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Evaluates the cache directory, by reading the {@code tamaya.startup.cache} system/environment property.
+     * @return the directory, or null, if the cache is disabled.
+     */
+    private static Path evaluateDirectory(){
+        String value = System.getProperty(CACHE_PROPERTY);
+        if(value==null){
+            value = System.getenv(CACHE_PROPERTY);
+        }
+        if(value==null || value.trim().isEmpty() || "false".equalsIgnoreCase(value.trim())){
+            return null;
+        }
+        if("true".equalsIgnoreCase(value.trim())){
+            String home = System.getProperty("user.home");
+            if(home==null || home.isEmpty() || "?".equals(home)){
+                LOG.warning("Startup cache disabled, the home directory of the user is not known.");
+                return null;
+            }
+            return Paths.get(home, ".tamaya", "startup-cache");
+        }
+        return Paths.get(value.trim());
+    }
+
+    /**
+     * Removes all cache instances, so the next access evaluates the configuration and classpath again.
+     * Entries not yet stored are lost.
+     */
+    static void reset(){
+        synchronized (CACHES){
+            CACHES.clear();
+        }
+    }
+
+    /**
+     * Get the file this cache is stored in.
+     * @return the file, never null.
+     */
+    public Path getFile(){
+        return file;
+    }
+
+    /**
+     * Get the cached service implementation class names.
+     * @param serviceType the service type, not null.
+     * @return the class names, or {@code null}, if not cached.
+     */
+    public synchronized List<String> getServiceClassNames(Class<?> serviceType){
+        load();
+        return services.get(serviceType.getName());
+    }
+
+    /**
+     * Caches the service implementation class names.
+     * @param serviceType the service type, not null.
+     * @param classNames the class names, not null.
+     */
+    public synchronized void putServiceClassNames(Class<?> serviceType, List<String> classNames){
+        load();
+        List<String> value = Collections.unmodifiableList(new ArrayList<>(classNames));
+        if(!value.equals(services.put(serviceType.getName(), value))){
+            setModified();
+        }
+    }
+
+    /**
+     * Get the cached target type of a property converter.
+     * @param converterClass the converter class name, not null.
+     * @return the target type class name, or {@code null}, if not cached.
+     */
+    public synchronized String getConverterTarget(String converterClass){
+        load();
+        return converterTargets.get(converterClass);
+    }
+
+    /**
+     * Caches the target type of a property converter.
+     * @param converterClass the converter class name, not null.
+     * @param targetClass the target type class name, not null.
+     */
+    public synchronized void putConverterTarget(String converterClass, String targetClass){
+        load();
+        if(!targetClass.equals(converterTargets.put(converterClass, targetClass))){
+            setModified();
+        }
+    }
+
+    /**
+     * Get the cached values of a property source.
+     * @param name the property source name, not null.
+     * @return the values, or {@code null}, if not cached.
+     */
+    public synchronized Map<String, PropertyValue> getPropertySource(String name){
+        load();
+        return propertySources.get(name);
+    }
+
+    /**
+     * Caches the values of a property source. Only property sources, whose values are fully determined by the
+     * classpath, must be cached.
+     * @param name the property source name, not null.
+     * @param properties the values, not null.
+     */
+    public synchronized void putPropertySource(String name, Map<String, PropertyValue> properties){
+        load();
+        Map<String, PropertyValue> value = Collections.unmodifiableMap(new HashMap<>(properties));
+        if(!value.equals(propertySources.put(name, value))){
+            setModified();
+        }
+    }
+
+    private void setModified(){
+        modified = true;
+        registerShutdownHook();
+    }
+
+    /**
+     * Registers the shutdown hook storing all caches, which have not been {@link #reset()}.
+     */
+    private static void registerShutdownHook(){
+        synchronized (CACHES){
+            if(shutdownHookRegistered){
+                return;
+            }
+            shutdownHookRegistered = true;
+        }
+        try{
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                List<StartupCache> caches;
+                synchronized (CACHES){
+                    caches = new ArrayList<>(CACHES.values());
+                }
+                for(StartupCache cache:caches){
+                    try {
+                        cache.store();
+                    } catch (IOException e) {
+                        LOG.log(Level.FINE, "Failed to store startup cache: " + cache.file, e);
+                    }
+                }
+            }, "tamaya-startup-cache"));
+        }catch(IllegalStateException e){
+            // shutdown in progress
+        }
+    }
+
+    /**
+     * Writes the cache, if entries have been added since it was loaded. Outdated cache files of the same
+     * classpath, i.e. with the same classpath entries but different contents, are removed.
+     * @throws IOException if writing fails.
+     */
+    public synchronized void store() throws IOException {
+        if(!modified){
+            return;
+        }
+        if(Files.getFileStore(existingParent(directory)).supportsFileAttributeView(PosixFileAttributeView.class)){
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rwx------")));
+        }else{
+            Files.createDirectories(directory);
+        }
+        Path tmp = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                write(out);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        modified = false;
+        String fileName = file.getFileName().toString();
+        String classpathPrefix = fileName.substring(0, fileName.lastIndexOf('-') + 1);
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, classpathPrefix + "*" + FILE_SUFFIX)){
+            for(Path other:files){
+                if(!other.equals(file)){
+                    Files.deleteIfExists(other);
+                }
+            }
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(services.size());
+        for(Map.Entry<String, List<String>> en:services.entrySet()){
+            out.writeUTF(en.getKey());
+            out.writeInt(en.getValue().size());
+            for(String className:en.getValue()){
+                out.writeUTF(className);
+            }
+        }
+        out.writeInt(converterTargets.size());
+        for(Map.Entry<String, String> en:converterTargets.entrySet()){
+            out.writeUTF(en.getKey());
+            out.writeUTF(en.getValue());
+        }
+        ByteArrayOutputStream sources = new ByteArrayOutputStream();
+        try(SnapshotCodec.Writer writer = new SnapshotCodec.Writer(sources)){
+            for(Map.Entry<String, Map<String, PropertyValue>> en:propertySources.entrySet()){
+                writer.write(new DefaultPropertySourceSnapshot(en.getKey(), 0, System.currentTimeMillis(),
+                        en.getValue()));
+            }
+        }
+        out.writeInt(sources.size());
+        sources.writeTo(out);
+    }
+
+    /**
+     * Loads the cache file, if it exists. Invalid files are ignored.
+     */
+    private void load(){
+        if(loaded){
+            return;
+        }
+        loaded = true;
+        if(!Files.isRegularFile(file)){
+            return;
+        }
+        if(!isTrusted(directory) || !isTrusted(file)){
+            LOG.warning("Ignoring startup cache, which is not owned by the current user or writable by others: "
+                    + file);
+            return;
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            read(new DataInputStream(new ByteBufferInputStream(buffer)));
+        }catch(Exception e){
+            LOG.log(Level.INFO, "Ignoring invalid startup cache: " + file, e);
+            services.clear();
+            converterTargets.clear();
+            propertySources.clear();
+        }
+    }
+
+    /**
+     * Checks, if a file or directory can be trusted: it must be owned by the current user and must not be writable
+     * by group or others. If the file system does not support owners or POSIX permissions, the respective check is
+     * skipped.
+     * @param path the file or directory, not null.
+     * @return true, if the file can be trusted.
+     */
+    private static boolean isTrusted(Path path){
+        try {
+            UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            if(Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class)){
+                PosixFileAttributes attributes = Files.readAttributes(path, PosixFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS);
+                Set<PosixFilePermission> permissions = attributes.permissions();
+                return attributes.owner().equals(user)
+                        && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                        && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+            }
+            if(Files.getFileStore(path).supportsFileAttributeView(FileOwnerAttributeView.class)){
+                return Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).equals(user);
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LOG.log(Level.FINE, "Cannot evaluate owner of " + path, e);
+            return false;
+        }
+    }
+
+    private static Path existingParent(Path path){
+        Path result = path.toAbsolutePath();
+        while(result.getParent()!=null && !Files.exists(result)){
+            result = result.getParent();
+        }
+        return result;
+    }
+
+    /**
+     * Checks, if a class is covered by the classpath fingerprint, which is the case for classes loaded from jars,
+     * but not for classes loaded from directories: information derived from the class files, like the target type
+     * of a converter, must only be cached for fingerprinted classes.
+     * @param type the class, not null.
+     * @return true, if changes of the class change the fingerprint.
+     */
+    public static boolean isFingerprinted(Class<?> type){
+        try {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            if(codeSource==null || codeSource.getLocation()==null){
+                // loaded by the bootstrap class loader, covered by the Java version.
+                return type.getClassLoader()==null;
+            }
+            URL location = codeSource.getLocation();
+            return "file".equalsIgnoreCase(location.getProtocol()) && Files.isRegularFile(Paths.get(location.toURI()));
+        } catch (URISyntaxException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if(in.readInt()!=MAGIC || in.readInt()!=FORMAT_VERSION){
+            throw new IOException("Unsupported startup cache format.");
+        }
+        int serviceCount = in.readInt();
+        for(int i=0;i<serviceCount;i++){
+            String serviceType = in.readUTF();
+            int count = in.readInt();
+            List<String> classNames = new ArrayList<>(count);
+            for(int c=0;c<count;c++){
+                classNames.add(in.readUTF());
+            }
+            services.put(serviceType, Collections.unmodifiableList(classNames));
+        }
+        int converterCount = in.readInt();
+        for(int i=0;i<converterCount;i++){
+            converterTargets.put(in.readUTF(), in.readUTF());
+        }
+        in.readInt();
+        SnapshotCodec.Reader reader = new SnapshotCodec.Reader(in);
+        PropertySource ps;
+        while((ps = reader.read())!=null){
+            propertySources.put(ps.getName(), ps.getProperties());
+        }
+    }
+
+    /**
+     * Evaluates the fingerprint of the classpath of the given class loader.
+     * @param classLoader the class loader, not null.
+     * @return the fingerprint, or null, if the classpath cannot be evaluated.
+     */
+    static String fingerprint(ClassLoader classLoader){
+        List<Path> entries = new ArrayList<>();
+        ClassLoader cl = classLoader;
+        boolean systemClassPath = false;
+        while(cl!=null){
+            if(cl instanceof URLClassLoader){
+                for(URL url:((URLClassLoader)cl).getURLs()){
+                    if(!"file".equalsIgnoreCase(url.getProtocol())){
+                        return null;
+                    }
+                    try {
+                        entries.add(Paths.get(url.toURI()));
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        return null;
+                    }
+                }
+            }else if(cl==ClassLoader.getSystemClassLoader()){
+                systemClassPath = true;
+            }else if(cl!=ClassLoader.getSystemClassLoader().getParent()){
+                // unknown class loader, whose classpath cannot be evaluated.
+                return null;
+            }
+            cl = cl.getParent();
+        }
+        if(systemClassPath){
+            for(String entry:System.getProperty("java.class.path", "").split(File.pathSeparator)){
+                if(!entry.isEmpty()){
+                    entries.add(Paths.get(entry));
+                }
+            }
+        }
+        try {
+            // the fingerprint is prefixed by a hash of the entries, which identifies files of the same classpath.
+            MessageDigest pathDigest = MessageDigest.getInstance("SHA-256");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, "v" + FORMAT_VERSION + ":" + System.getProperty("java.version"));
+            Set<Path> visited = new HashSet<>();
+            for(Path entry:entries){
+                update(pathDigest, entry.toAbsolutePath().normalize().toString());
+                fingerprint(digest, entry.toAbsolutePath().normalize(), visited);
+            }
+            return toHex(pathDigest.digest(), 8) + '-' + toHex(digest.digest(), 16);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            LOG.log(Level.FINE, "Cannot evaluate classpath fingerprint.", e);
+            return null;
+        }
+    }
+
+    private static void fingerprint(MessageDigest digest, Path entry, Set<Path> visited) throws IOException {
+        if(!visited.add(entry)){
+            return;
+        }
+        update(digest, entry.toString());
+        if(Files.isDirectory(entry)){
+            for(String name:FINGERPRINTED_FILES){
+                updateFile(digest, entry.resolve(name));
+            }
+            Path services = entry.resolve(SERVICES_DIR);
+            if(Files.isDirectory(services)){
+                List<Path> files = new ArrayList<>();
+                try(DirectoryStream<Path> stream = Files.newDirectoryStream(services)){
+                    stream.forEach(files::add);
+                }
+                Collections.sort(files);
+                for(Path file:files){
+                    updateFile(digest, file);
+                }
+            }
+        }else if(Files.isRegularFile(entry)){
+            updateFile(digest, entry);
+            // jars may reference further jars in their manifest
+            try(JarFile jar = new JarFile(entry.toFile())){
+                Manifest manifest = jar.getManifest();
+                String classPath = manifest==null?null:manifest.getMainAttributes()
+                        .getValue(Attributes.Name.CLASS_PATH);
+                if(classPath!=null){
+                    for(String ref:classPath.trim().split("\\s+")){
+                        try {
+                            URL url = new URL(entry.toUri().toURL(), ref);
+                            if("file".equalsIgnoreCase(url.getProtocol())){
+                                fingerprint(digest, Paths.get(url.toURI()).toAbsolutePath().normalize(), visited);
+                            }
+                        } catch (URISyntaxException | IllegalArgumentException e) {
+                            update(digest, ref);
+                        }
+                    }
+                }
+            }catch(IOException e){
+                // not a jar
+            }
+        }
+    }
+
+    private static String toHex(byte[] hash, int length){
+        StringBuilder b = new StringBuilder();
+        for(int i=0;i<length;i++){
+            b.append(String.format("%02x", hash[i]));
+        }
+        return b.toString();
+    }
+
+    private static void updateFile(MessageDigest digest, Path file) throws IOException {
+        if(Files.exists(file)){
+            update(digest, file.getFileName() + ":" + Files.size(file) + ":"
+                    + Files.getLastModifiedTime(file).toMillis());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value){
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    @Override
+    public String toString() {
+        return "StartupCache{" +
+                "file=" + file +
+                '}';
+    }
+
+    /**
+     * Input stream reading from a byte buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream{
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer){
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining()?buffer.get() & 0xFF:-1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if(len==0){
+                return 0;
+            }
+            if(!buffer.hasRemaining()){
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -24,6 +24,9 @@ import org.apache.tamaya.spi.PropertyValue;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>{@link org.apache.tamaya.spi.PropertySource} to access environment variables via Tamaya
@@ -88,6 +91,10 @@ import java.util.Map;
  * <p>The access to environment variables can simply be
  * disabled by setting the system property {@code tamaya.envprops.disable}
  * or {@code tamaya.defaults.disable} to {@code true}.</p>
+ *
+ * <p>Since the environment cannot change during the lifetime of the JVM, the values looked up are cached
+ * by key. The cache is initialized with the environment variable names, so exact matches never require
+ * a lookup. The values returned are shared and therefore {@link PropertyValue#immutable() immutable}.</p>
  */
 public class EnvironmentPropertySource extends BasePropertySource {
     private static final String TAMAYA_ENVPROPS_PREFIX = "tamaya.envprops.prefix";
@@ -99,6 +106,11 @@ public class EnvironmentPropertySource extends BasePropertySource {
      */
     public static final int DEFAULT_ORDINAL = 300;
 
+    /**
+     * The maximal number of keys cached in addition to the environment variable names, e.g. dotted keys or misses.
+     */
+    private static final int MAX_CACHED_KEYS = 4096;
+
     /**
      * Prefix that allows environment properties to virtually be mapped on specified sub section.
      */
@@ -113,6 +125,21 @@ public class EnvironmentPropertySource extends BasePropertySource {
 
     private SystemPropertiesProvider propertiesProvider = new SystemPropertiesProvider();
 
+    /**
+     * The values evaluated by key, including misses, created lazily.
+     */
+    private volatile Map<String, Optional<PropertyValue>> values;
+
+    /**
+     * The number of keys added to {@link #values} in addition to the environment variable names.
+     */
+    private final AtomicInteger addedKeys = new AtomicInteger();
+
+    /**
+     * The properties as returned by {@link #getProperties()}, created lazily.
+     */
+    private volatile Map<String, PropertyValue> properties;
+
     /**
      * Creates a new instance. Also initializes the {@code prefix} and {@code disabled} properties
      * from the system-/ environment properties:
@@ -203,23 +230,66 @@ public class EnvironmentPropertySource extends BasePropertySource {
         if (isDisabled()) {
             return null;
         }
-        // Exact match (i.e. com.ACME.getNumChilds)
+        Map<String, Optional<PropertyValue>> values = getValues();
+        Optional<PropertyValue> value = values.get(key);
+        if(value==null){
+            value = Optional.ofNullable(evaluate(key));
+            if(addedKeys.get() < MAX_CACHED_KEYS && values.putIfAbsent(key, value)==null){
+                addedKeys.incrementAndGet();
+            }
+        }
+        return value.orElse(null);
+    }
+
+    /**
+     * Get the cache of values evaluated, initialized with the environment variable names.
+     * @return the cache, never null.
+     */
+    private Map<String, Optional<PropertyValue>> getValues() {
+        Map<String, Optional<PropertyValue>> values = this.values;
+        if(values==null){
+            values = new ConcurrentHashMap<>();
+            if(!hasPrefix()) {
+                for (Map.Entry<String, String> entry : getPropertiesProvider().getenv().entrySet()) {
+                    values.put(entry.getKey(), Optional.of(
+                            PropertyValue.of(entry.getKey(), entry.getValue(), getName()).immutable()));
+                }
+            }
+            this.values = values;
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the value of a key, by looking up the environment variables in the following order:
+     * <ol>
+     *     <li>the key (i.e. com.ACME.getNumChilds)</li>
+     *     <li>the key with all . replaced by _ (i.e. com_ACME_size)</li>
+     *     <li>the key with all . replaced by _ and converted to upper case (i.e. COM_ACME_SIZE)</li>
+     * </ol>
+     * @param key the key, not null.
+     * @return the value found, or null.
+     */
+    private PropertyValue evaluate(String key) {
         String effectiveKey = hasPrefix() ? getPrefix() + "." + key
                 : key;
         String value = getPropertiesProvider().getenv(effectiveKey);
-        // Replace all . by _ (i.e. com_ACME_size)
-        if(value==null){
-            value = getPropertiesProvider().getenv(effectiveKey.replaceAll("\\.", "_"));
-        }
-        // Replace all . by _ and convert to upper case (i.e. COM_ACME_SIZE)
         if(value==null){
-            value = getPropertiesProvider().getenv(effectiveKey.replaceAll("\\.", "_")
-                    .toUpperCase());
+            String underscoreKey = effectiveKey.replace('.', '_');
+            if(!underscoreKey.equals(effectiveKey)) {
+                value = getPropertiesProvider().getenv(underscoreKey);
+            }
+            if(value==null){
+                String upperCaseKey = underscoreKey.toUpperCase();
+                if(!upperCaseKey.equals(effectiveKey)) {
+                    value = getPropertiesProvider().getenv(upperCaseKey);
+                }
+            }
         }
         if(value==null){
             return null;
         }
-        return PropertyValue.of(key, value, getName());
+        return PropertyValue.of(key, value, getName()).immutable();
     }
 
     private boolean hasPrefix() {
@@ -231,17 +301,27 @@ public class EnvironmentPropertySource extends BasePropertySource {
         if(disabled){
             return Collections.emptyMap();
         }
+        Map<String, PropertyValue> properties = this.properties;
+        if(properties==null){
+            properties = Collections.unmodifiableMap(loadProperties());
+            this.properties = properties;
+        }
+        return properties;
+    }
+
+    private Map<String, PropertyValue> loadProperties() {
         String prefix = this.prefix;
         if(prefix==null) {
             Map<String, PropertyValue> entries = new HashMap<>(System.getenv().size());
             for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
-                entries.put(entry.getKey(), PropertyValue.of(entry.getKey(), entry.getValue(), getName()));
+                entries.put(entry.getKey(), PropertyValue.of(entry.getKey(), entry.getValue(), getName()).immutable());
             }
             return entries;
         }else{
             Map<String, PropertyValue> entries = new HashMap<>(System.getenv().size());
             for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
-                entries.put(prefix + entry.getKey(), PropertyValue.of(prefix + entry.getKey(), entry.getValue(), getName()));
+                entries.put(prefix + entry.getKey(),
+                        PropertyValue.of(prefix + entry.getKey(), entry.getValue(), getName()).immutable());
             }
             return entries;
         }
@@ -257,6 +337,9 @@ public class EnvironmentPropertySource extends BasePropertySource {
 
     void setPropertiesProvider(SystemPropertiesProvider spp) {
         propertiesProvider = spp;
+        values = null;
+        addedKeys.set(0);
+        properties = null;
         initFromSystemProperties();
     }
 
@@ -21,6 +21,7 @@ package org.apache.tamaya.spisupport.propertysource;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.spi.*;
 import org.apache.tamaya.spisupport.PropertySourceComparator;
+import org.apache.tamaya.spisupport.StartupCache;
 
 import java.io.IOException;
 import java.net.URL;
@@ -54,6 +55,11 @@ public class JavaConfigurationPropertySource extends BasePropertySource implemen
 
     private List<PropertySource> propertySources = new ArrayList<>();
 
+    /**
+     * The merged properties of all property sources loaded, evaluated on {@link #init(ClassLoader)}.
+     */
+    private volatile Map<String, PropertyValue> properties = Collections.emptyMap();
+
 
     public JavaConfigurationPropertySource(){
         super("resource:META-INF/javaconfiguration.*", DEFAULT_ORDINAL);
@@ -111,16 +117,33 @@ public class JavaConfigurationPropertySource extends BasePropertySource implemen
     }
 
 
+    @Override
+    public PropertyValue get(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return properties.get(key);
+    }
+
     @Override
     public Map<String, PropertyValue> getProperties() {
         if (!isEnabled()) {
             return Collections.emptyMap();
         }
+        return properties;
+    }
+
+    /**
+     * Merges the properties of all property sources loaded, the property sources are ordered by significance,
+     * most significant last.
+     * @return the merged properties, never null.
+     */
+    private Map<String, PropertyValue> mergeProperties() {
         Map<String,PropertyValue> result = new HashMap<>();
         for(PropertySource ps:getPropertySources()){
             result.putAll(ps.getProperties());
         }
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
     @Override
@@ -138,9 +161,19 @@ public class JavaConfigurationPropertySource extends BasePropertySource implemen
     @Override
     public void init(ClassLoader classLoader) {
         this.classLoader = Objects.requireNonNull(classLoader);
+        StartupCache startupCache = StartupCache.of(classLoader);
+        Map<String, PropertyValue> cached = startupCache==null?null:startupCache.getPropertySource(getName());
+        if(cached!=null){
+            this.properties = cached;
+            return;
+        }
         propertySources.addAll(loadPropertySourcesByName(DEFAULT_SIMPLE_PROPERTIES_FILE_NAME, classLoader));
         propertySources.addAll(loadPropertySourcesByName(DEFAULT_XML_PROPERTIES_FILE_NAME, classLoader));
         Collections.sort(propertySources, PropertySourceComparator.getInstance());
+        this.properties = mergeProperties();
+        if(startupCache!=null){
+            startupCache.putPropertySource(getName(), this.properties);
+        }
     }
 
     @Override
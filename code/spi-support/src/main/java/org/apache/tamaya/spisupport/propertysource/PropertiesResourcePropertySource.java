@@ -24,8 +24,9 @@ import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spi.ServiceContextManager;
 import org.apache.tamaya.spisupport.PropertySourceChangeSupport;
 
-import java.io.InputStream;
+import java.io.FileNotFoundException;
 import java.net.URL;
+import java.nio.file.NoSuchFileException;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -34,10 +35,16 @@ import java.util.logging.Logger;
 
 /**
  * Simple {@link org.apache.tamaya.spi.PropertySource}, with a fixed ordinal that reads a .properties file from a given URL.
+ * Local files are watched for changes, other resources are reloaded every {@value #RELOAD_PERIOD_SECONDS} seconds.
  */
 public class PropertiesResourcePropertySource extends BasePropertySource {
     /** The logger used. */
     private static final Logger LOGGER = Logger.getLogger(PropertiesResourcePropertySource.class.getName());
+    /** The reload period for resources, which cannot be watched. */
+    private static final long RELOAD_PERIOD_SECONDS = 120;
+
+    /** The reader, which only parses the resource, if it has changed. */
+    private final ResourceReader reader = new ResourceReader();
 
     private volatile PropertySourceChangeSupport cachedProperties = new PropertySourceChangeSupport(
             ChangeSupport.SUPPORTED, this);
@@ -59,8 +66,8 @@ public class PropertiesResourcePropertySource extends BasePropertySource {
         super(url.toExternalForm());
         setPrefix(prefix);
         this.cachedProperties.load(loadProps(url));
-        this.cachedProperties.scheduleChangeMonitor(() -> loadProps(url),
-                120, TimeUnit.SECONDS);
+        this.cachedProperties.scheduleChangeMonitor(url, () -> reloadProps(url),
+                RELOAD_PERIOD_SECONDS, TimeUnit.SECONDS);
     }
 
     /**
@@ -82,8 +89,9 @@ public class PropertiesResourcePropertySource extends BasePropertySource {
         super(path);
         setPrefix(prefix);
         this.cachedProperties.load(loadProps(path, cl));
-        this.cachedProperties.scheduleChangeMonitor(() -> loadProps(path, cl),
-                120, TimeUnit.SECONDS);
+        this.cachedProperties.scheduleChangeMonitor(ServiceContextManager.getServiceContext(cl).getResource(path),
+                () -> reloadProps(ServiceContextManager.getServiceContext(cl).getResource(path)),
+                RELOAD_PERIOD_SECONDS, TimeUnit.SECONDS);
     }
 
     /**
@@ -103,10 +111,12 @@ public class PropertiesResourcePropertySource extends BasePropertySource {
      */
     private Map<String, PropertyValue> loadProps(URL url) {
         if(url!=null) {
-            try (InputStream is = url.openStream()) {
-                Properties props = new Properties();
-                props.load(is);
-                return mapProperties(MapPropertySource.getMap(props), System.currentTimeMillis());
+            try {
+                Map<String, String> props = reader.read(url);
+                if(props!=null) {
+                    return mapProperties(props, System.currentTimeMillis());
+                }
+                return cachedProperties.getProperties();
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Failed to read properties from " + url, e);
             }
@@ -116,6 +126,29 @@ public class PropertiesResourcePropertySource extends BasePropertySource {
         return Collections.emptyMap();
     }
 
+    /**
+     * Reloads the properties. Other than {@link #loadProps(URL)}, failures are not ignored, so the
+     * properties loaded before are kept.
+     * @param url the resource URL.
+     * @return the loaded properties, or {@code null}, if the resource has not changed.
+     * @throws IllegalStateException if the properties cannot be read.
+     */
+    private Map<String, PropertyValue> reloadProps(URL url) {
+        if(url==null){
+            reader.reset();
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, String> props = reader.read(url);
+            return props==null?null:mapProperties(props, System.currentTimeMillis());
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            reader.reset();
+            return Collections.emptyMap();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read properties from " + url, e);
+        }
+    }
+
     @Override
     public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
         this.cachedProperties.addChangeListener(l);
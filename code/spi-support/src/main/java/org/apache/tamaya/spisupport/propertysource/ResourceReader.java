@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport.propertysource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Reader for {@code .properties} resources, which only parses a resource, if its content has changed since it
+ * was read last. Changes are detected by checking the cheapest signal available first: the modification time and
+ * size of local files, the {@code ETag} and {@code Last-Modified} headers of HTTP resources, and finally a CRC32
+ * checksum of the raw content.
+ */
+final class ResourceReader {
+
+    /**
+     * File modification times within this period before a check are not trusted, since the file may be modified
+     * again within the timestamp resolution of the file system.
+     */
+    private static final long MODIFICATION_TIME_RESOLUTION = 2000L;
+
+    private URL url;
+    private long checksum;
+    private long lastModified;
+    private long length;
+    private long checkTime;
+    private String etag;
+
+    /**
+     * Reads the properties from the given resource.
+     * @param url the resource URL, not null.
+     * @return the properties, or {@code null}, if the content has not changed since the last read.
+     * @throws IOException if the resource cannot be read.
+     */
+    synchronized Map<String, String> read(URL url) throws IOException {
+        if(!url.equals(this.url)){
+            reset();
+        }
+        byte[] content;
+        long now = System.currentTimeMillis();
+        if("file".equalsIgnoreCase(url.getProtocol())){
+            File file = toFile(url);
+            long fileModified = file.lastModified();
+            long fileLength = file.length();
+            if(this.url!=null && fileModified!=0L && fileModified==lastModified && fileLength==length
+                    && fileModified < checkTime - MODIFICATION_TIME_RESOLUTION){
+                return null;
+            }
+            content = readContent(url.openStream());
+            lastModified = fileModified;
+            length = fileLength;
+        }else{
+            URLConnection connection = url.openConnection();
+            if(this.url!=null && connection instanceof HttpURLConnection){
+                if(etag!=null){
+                    connection.setRequestProperty("If-None-Match", etag);
+                }
+                if(lastModified>0L){
+                    connection.setIfModifiedSince(lastModified);
+                }
+                if(((HttpURLConnection)connection).getResponseCode()==HttpURLConnection.HTTP_NOT_MODIFIED){
+                    ((HttpURLConnection) connection).disconnect();
+                    return null;
+                }
+            }
+            content = readContent(connection.getInputStream());
+            etag = connection.getHeaderField("ETag");
+            lastModified = connection.getLastModified();
+        }
+        checkTime = now;
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        if(this.url!=null && crc.getValue()==checksum){
+            return null;
+        }
+        Properties props = new Properties();
+        props.load(new ByteArrayInputStream(content));
+        this.url = url;
+        this.checksum = crc.getValue();
+        return MapPropertySource.getMap(props);
+    }
+
+    /**
+     * Resets the state, so the next read parses the resource.
+     */
+    synchronized void reset(){
+        this.url = null;
+        this.checksum = 0L;
+        this.lastModified = 0L;
+        this.length = 0L;
+        this.checkTime = 0L;
+        this.etag = null;
+    }
+
+    private static File toFile(URL url) throws IOException {
+        try{
+            return Paths.get(url.toURI()).toFile();
+        }catch(Exception e){
+            throw new IOException("Invalid file URL: " + url, e);
+        }
+    }
+
+    private static byte[] readContent(InputStream is) throws IOException {
+        try(InputStream in = is){
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while((read = in.read(buffer))>=0){
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -19,16 +19,36 @@
 package org.apache.tamaya.spisupport.propertysource;
 
 import org.apache.tamaya.spi.ChangeSupport;
+import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spisupport.ChangeMonitoring;
 import org.apache.tamaya.spisupport.PropertySourceChangeSupport;
 
+import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * This {@link org.apache.tamaya.spi.PropertySource} manages the system properties. You can disable this feature by
  * setting {@code tamaya.envprops.disable} or {@code tamaya.defaults.disable}.
+ * <p>
+ * By default the system properties are checked for changes on each access, which requires evaluating the hash code
+ * of all system properties. This can be changed by setting {@code tamaya.sysprops.refresh}:
+ * </p>
+ * <ul>
+ *     <li>{@code access} (default): the system properties are checked on each access.</li>
+ *     <li>{@code manual}: the system properties are only reloaded, when {@link #reload()} is called.</li>
+ *     <li>a number: the system properties are checked periodically by a background daemon thread, using the
+ *     given period in milliseconds.</li>
+ * </ul>
+ * With {@code manual} or periodic refresh, accessing a property is a plain read of the current properties loaded.
  */
 public class SystemPropertySource extends BasePropertySource {
 
@@ -37,8 +57,21 @@ public class SystemPropertySource extends BasePropertySource {
      */
     public static final int DEFAULT_ORDINAL = 1000;
 
+    private static final Logger LOG = Logger.getLogger(SystemPropertySource.class.getName());
+
+    /** Refresh period value for checking for changes on each access. */
+    private static final long REFRESH_ON_ACCESS = 0L;
+    /** Refresh period value for reloading only, when {@link #reload()} is called. */
+    private static final long REFRESH_MANUAL = -1L;
+
     private AtomicInteger savedHashcode = new AtomicInteger();
 
+    /** The refresh period in milliseconds, or one of {@link #REFRESH_ON_ACCESS}, {@link #REFRESH_MANUAL}. */
+    private final long refreshPeriod = evaluateRefreshPeriod();
+
+    /** Flag set, when the properties have been loaded initially. */
+    private volatile boolean loaded;
+
     private volatile PropertySourceChangeSupport cachedProperties = new PropertySourceChangeSupport(
             ChangeSupport.SUPPORTED, this);
 
@@ -56,6 +89,43 @@ public class SystemPropertySource extends BasePropertySource {
         if(!isDisabled()){
             reload();
         }
+        scheduleRefresh();
+    }
+
+    /**
+     * Evaluates the refresh period by reading the {@code tamaya.sysprops.refresh} system/environment property.
+     * @return the refresh period in milliseconds, or one of {@link #REFRESH_ON_ACCESS}, {@link #REFRESH_MANUAL}.
+     */
+    private static long evaluateRefreshPeriod() {
+        String value = System.getProperty("tamaya.sysprops.refresh");
+        if(value==null){
+            value = System.getenv("tamaya.sysprops.refresh");
+        }
+        if(value==null || value.trim().isEmpty() || "access".equalsIgnoreCase(value.trim())){
+            return REFRESH_ON_ACCESS;
+        }
+        if("manual".equalsIgnoreCase(value.trim())){
+            return REFRESH_MANUAL;
+        }
+        try{
+            long period = Long.parseLong(value.trim());
+            if(period>0){
+                return period;
+            }
+        }catch(NumberFormatException e){
+            // log below
+        }
+        LOG.warning("Invalid value for tamaya.sysprops.refresh, using 'access': " + value);
+        return REFRESH_ON_ACCESS;
+    }
+
+    /**
+     * Schedules the periodic refresh, if configured.
+     */
+    private void scheduleRefresh() {
+        if(refreshPeriod>0){
+            RefreshTask.schedule(this, refreshPeriod);
+        }
     }
 
     /**
@@ -103,6 +173,7 @@ public class SystemPropertySource extends BasePropertySource {
     public SystemPropertySource(String prefix, int ordinal){
         setPrefix(prefix);
         setOrdinal(ordinal);
+        scheduleRefresh();
     }
 
     /**
@@ -111,6 +182,7 @@ public class SystemPropertySource extends BasePropertySource {
      */
     public SystemPropertySource(String prefix){
         setPrefix(prefix);
+        scheduleRefresh();
     }
 
 
@@ -124,15 +196,29 @@ public class SystemPropertySource extends BasePropertySource {
         if(isDisabled()){
             return null;
         }
-        reload();
+        checkReload();
         return this.cachedProperties.getValue(key);
     }
 
+    /**
+     * Reloads the system properties, if required by the refresh mode.
+     */
+    private void checkReload() {
+        if(refreshPeriod==REFRESH_ON_ACCESS || !loaded){
+            reload();
+        }
+    }
+
+    /**
+     * Checks the system properties for changes and reloads them as needed. Change listeners are notified about
+     * the keys changed.
+     */
     public void reload() {
         int hashCode = System.getProperties().hashCode();
-        if(hashCode!=this.savedHashcode.get()) {
+        if(hashCode!=this.savedHashcode.get() || !loaded) {
             this.savedHashcode.set(hashCode);
             this.cachedProperties.load(loadProperties());
+            this.loaded = true;
         }
     }
 
@@ -141,17 +227,79 @@ public class SystemPropertySource extends BasePropertySource {
         if(isDisabled()){
             return Collections.emptyMap();
         }
-        reload();
+        checkReload();
         return cachedProperties.getProperties();
     }
 
+    /**
+     * Get the version of the system properties. As with accessing a property, the system properties are checked for
+     * changes first, if required by the refresh mode, so the version returned reflects the current system properties.
+     * @return the version, never null.
+     */
+    @Override
     public String getVersion(){
+        if(!isDisabled()){
+            checkReload();
+        }
         return cachedProperties.getVersion();
     }
 
+    @Override
+    public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+        this.cachedProperties.addChangeListener(l);
+    }
+
+    @Override
+    public void removeChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+        this.cachedProperties.removeChangeListener(l);
+    }
+
+    @Override
+    public void removeAllChangeListeners() {
+        this.cachedProperties.removeAllChangeListeners();
+    }
+
     @Override
     public ChangeSupport getChangeSupport() {
         return ChangeSupport.SUPPORTED;
     }
 
+    /**
+     * Task periodically reloading a {@link SystemPropertySource}. The task only holds a weak reference to the
+     * property source and cancels itself, once the property source has been garbage collected.
+     */
+    private static final class RefreshTask implements Runnable{
+
+        private final WeakReference<SystemPropertySource> propertySource;
+        private volatile ScheduledFuture<?> future;
+
+        private RefreshTask(SystemPropertySource propertySource){
+            this.propertySource = new WeakReference<>(propertySource);
+        }
+
+        static void schedule(SystemPropertySource propertySource, long period){
+            RefreshTask task = new RefreshTask(propertySource);
+            task.future = ChangeMonitoring.getScheduler().scheduleAtFixedRate(task, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            SystemPropertySource ps = propertySource.get();
+            if(ps==null){
+                ScheduledFuture<?> f = future;
+                if(f!=null){
+                    f.cancel(false);
+                }
+                return;
+            }
+            try{
+                if(!ps.isDisabled()){
+                    ps.reload();
+                }
+            }catch(Exception e){
+                LOG.log(Level.WARNING, "Failed to reload system properties.", e);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ChangeMonitoring}.
+ */
+public class ChangeMonitoringTest {
+
+    @Test
+    public void getScheduler_Default() throws Exception {
+        ScheduledExecutorService scheduler = ChangeMonitoring.getScheduler();
+        assertThat(scheduler).isSameAs(ChangeMonitoring.getScheduler());
+        assertThat(scheduler.schedule(() -> Thread.currentThread().isDaemon(), 1, TimeUnit.MILLISECONDS)
+                .get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void setScheduler() {
+        ScheduledExecutorService custom = Executors.newSingleThreadScheduledExecutor();
+        try{
+            ChangeMonitoring.setScheduler(custom);
+            assertThat(ChangeMonitoring.getScheduler()).isSameAs(custom);
+        }finally{
+            ChangeMonitoring.setScheduler(null);
+            custom.shutdown();
+        }
+        assertThat(ChangeMonitoring.getScheduler()).isNotSameAs(custom);
+    }
+
+    @Test
+    public void watch() throws Exception {
+        Path dir = Files.createTempDirectory("tamaya");
+        Path file = dir.resolve("test.properties");
+        Path other = dir.resolve("other.properties");
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        Runnable handle = ChangeMonitoring.watch(file, () -> events.add("changed"));
+        assertThat(handle).isNotNull();
+        try{
+            Files.write(other, Collections.singletonList("a=1"));
+            Files.write(file, Collections.singletonList("a=1"));
+            assertThat(events.poll(10, TimeUnit.SECONDS)).isEqualTo("changed");
+            handle.run();
+            events.clear();
+            Files.write(file, Collections.singletonList("a=2"));
+            assertThat(events.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        }finally{
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(other);
+            Files.delete(dir);
+        }
+    }
+}
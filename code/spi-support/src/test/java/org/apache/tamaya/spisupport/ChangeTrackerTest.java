@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ChangeTracker}.
+ */
+public class ChangeTrackerTest {
+
+    @Test
+    public void poll_Unchanged() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ChangeTracker tracker = new ChangeTracker(Arrays.asList(ps,
+                BuildablePropertySource.builder().withSimpleProperty("b", "2").build()));
+        assertThat(tracker.poll()).isEmpty();
+        assertThat(tracker.poll()).isEmpty();
+    }
+
+    @Test
+    public void poll_NotifiedKeys() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ChangeTracker tracker = new ChangeTracker(Collections.singletonList(ps));
+        ps.set("a", "2");
+        ps.set("b", "3");
+        assertThat(tracker.poll()).containsExactlyInAnyOrder("a", "b");
+        assertThat(tracker.poll()).isEmpty();
+    }
+
+    @Test
+    public void poll_UnknownKeysWithoutNotification() {
+        ChangingPropertySource ps = new ChangingPropertySource("async", 60_000L);
+        ps.set("a", "1");
+        ChangeTracker tracker = new ChangeTracker(Collections.singletonList(ps));
+        ps.set("a", "2");
+        assertThat(tracker.poll()).isNull();
+        assertThat(tracker.poll()).isEmpty();
+    }
+
+    @Test
+    public void poll_UnknownKeysForChangeDuringDelivery() throws InterruptedException {
+        AtomicReference<ChangeTracker> tracker = new AtomicReference<>();
+        AtomicReference<Set<String>> polled = new AtomicReference<>(Collections.singleton("not polled"));
+        CountDownLatch delivered = new CountDownLatch(1);
+        ChangingPropertySource ps = new ChangingPropertySource("async", 1L){
+            @Override
+            public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+                super.addChangeListener((keys, source) -> {
+                    if(keys.contains("a") && delivered.getCount()>0){
+                        // the change of b lands after the keys of the change of a have been taken.
+                        set("b", "2");
+                        l.accept(keys, source);
+                        polled.set(tracker.get().poll());
+                        delivered.countDown();
+                    }else{
+                        l.accept(keys, source);
+                    }
+                });
+            }
+        };
+        ps.set("a", "1");
+        tracker.set(new ChangeTracker(Collections.singletonList(ps)));
+        ps.set("a", "2");
+        assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(polled.get()).isNull();
+    }
+
+    @Test
+    public void listener_DoesNotKeepTrackerReachable() throws InterruptedException {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        WeakReference<ChangeTracker> ref = new WeakReference<>(
+                new ChangeTracker(Collections.<PropertySource>singletonList(ps)));
+        for(int i=0;i<50 && ref.get()!=null;i++){
+            System.gc();
+            Thread.sleep(20L);
+        }
+        assertThat(ref.get()).isNull();
+        // the listener of the tracker collected is removed on the next notification.
+        ps.set("a", "1");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.ChangeSupport;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Mutable property source supporting change notification.
+ */
+public class ChangingPropertySource implements PropertySource{
+
+    private final String name;
+    private final Map<String, PropertyValue> properties = new HashMap<>();
+    private final PropertySourceChangeSupport changeSupport;
+
+    public ChangingPropertySource() {
+        this("changing");
+    }
+
+    public ChangingPropertySource(String name) {
+        this.name = name;
+        this.changeSupport = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, this);
+    }
+
+    public ChangingPropertySource(String name, long dispatchWindow) {
+        this.name = name;
+        this.changeSupport = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, this, dispatchWindow);
+    }
+
+    public void set(String key, String value){
+        properties.put(key, PropertyValue.createValue(key, value));
+        changeSupport.load(new HashMap<>(properties));
+    }
+
+    public void remove(String key){
+        properties.remove(key);
+        changeSupport.load(new HashMap<>(properties));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public PropertyValue get(String key) {
+        return changeSupport.getValue(key);
+    }
+
+    @Override
+    public Map<String, PropertyValue> getProperties() {
+        return changeSupport.getProperties();
+    }
+
+    @Override
+    public ChangeSupport getChangeSupport() {
+        return ChangeSupport.SUPPORTED;
+    }
+
+    @Override
+    public String getVersion() {
+        return changeSupport.getVersion();
+    }
+
+    @Override
+    public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+        changeSupport.addChangeListener(l);
+    }
+
+    @Override
+    public void removeChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+        changeSupport.removeChangeListener(l);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.spi.*;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
+import org.apache.tamaya.spisupport.propertysource.SystemPropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ConfigValueCache}.
+ */
+public class ConfigValueCacheTest {
+
+    private ConfigurationContext createContext(PropertySource... propertySources){
+        return new DefaultConfigurationContext(ServiceContextManager.getServiceContext(),
+                Collections.emptyList(), Arrays.asList(propertySources), Collections.emptyMap(),
+                new DefaultMetaDataProvider());
+    }
+
+    @Test
+    public void of_UnsupportedChangeSupport() {
+        assertThat(ConfigValueCache.of(createContext(new MockedPropertySource()))).isNull();
+    }
+
+    @Test
+    public void of_Immutable() {
+        PropertySource ps = BuildablePropertySource.builder().withSimpleProperty("a", "1").build();
+        assertThat(ConfigValueCache.of(createContext(ps))).isNotNull();
+    }
+
+    @Test
+    public void putAndGet() {
+        ConfigValueCache cache = ConfigValueCache.of(createContext());
+        assertThat(cache.get("a", TypeLiteral.of(Integer.class))).isNull();
+        cache.put("a", TypeLiteral.of(Integer.class), 1, cache.getStamp());
+        cache.put("b", TypeLiteral.of(Integer.class), null, cache.getStamp());
+        assertThat(cache.get("a", TypeLiteral.of(Integer.class))).isEqualTo(1);
+        assertThat(cache.get("a", TypeLiteral.of(String.class))).isNull();
+        assertThat(cache.get("b", TypeLiteral.of(Integer.class))).isSameAs(ConfigValueCache.NULL_VALUE);
+    }
+
+    @Test
+    public void put_IgnoredWhenInvalidated() {
+        ConfigValueCache cache = ConfigValueCache.of(createContext());
+        long stamp = cache.getStamp();
+        cache.invalidate(Collections.singleton("a"));
+        cache.put("a", TypeLiteral.of(Integer.class), 1, stamp);
+        assertThat(cache.get("a", TypeLiteral.of(Integer.class))).isNull();
+    }
+
+    @Test
+    public void put_LimitsNullValues() {
+        ConfigValueCache cache = ConfigValueCache.of(createContext());
+        TypeLiteral<Integer> type = TypeLiteral.of(Integer.class);
+        for(int i=0;i<ConfigValueCache.MAX_NULL_VALUES;i++){
+            cache.put("missing" + i, type, null, cache.getStamp());
+        }
+        cache.put("missing", type, null, cache.getStamp());
+        cache.put("a", type, 1, cache.getStamp());
+        assertThat(cache.get("missing0", type)).isSameAs(ConfigValueCache.NULL_VALUE);
+        assertThat(cache.get("missing", type)).isNull();
+        assertThat(cache.get("a", type)).isEqualTo(1);
+        cache.put("missing0", type, 0, cache.getStamp());
+        cache.put("missing", type, null, cache.getStamp());
+        assertThat(cache.get("missing", type)).isSameAs(ConfigValueCache.NULL_VALUE);
+        cache.invalidate(Collections.singleton("missing1"));
+        cache.put("other", type, null, cache.getStamp());
+        assertThat(cache.get("other", type)).isSameAs(ConfigValueCache.NULL_VALUE);
+        cache.clear();
+        cache.put("missing", type, null, cache.getStamp());
+        assertThat(cache.get("missing", type)).isSameAs(ConfigValueCache.NULL_VALUE);
+    }
+
+    @Test
+    public void invalidate_OnlyChangedKeys() {
+        ConfigValueCache cache = ConfigValueCache.of(createContext());
+        cache.put("a", TypeLiteral.of(Integer.class), 1, cache.getStamp());
+        cache.put("b", TypeLiteral.of(Integer.class), 2, cache.getStamp());
+        cache.invalidate(Collections.singleton("a"));
+        assertThat(cache.get("a", TypeLiteral.of(Integer.class))).isNull();
+        assertThat(cache.get("b", TypeLiteral.of(Integer.class))).isEqualTo(2);
+        cache.clear();
+        assertThat(cache.get("b", TypeLiteral.of(Integer.class))).isNull();
+    }
+
+    @Test
+    public void configuration_ReflectsSourceChanges() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ps.set("b", "2");
+        DefaultConfiguration config = new DefaultConfiguration(createContext(ps), true);
+        assertThat(config.get("a", Integer.class)).isEqualTo(1);
+        assertThat(config.get("b", Integer.class)).isEqualTo(2);
+        assertThat(config.get("c", Integer.class)).isNull();
+        ps.set("a", "10");
+        ps.set("c", "3");
+        assertThat(config.get("a", Integer.class)).isEqualTo(10);
+        assertThat(config.get("b", Integer.class)).isEqualTo(2);
+        assertThat(config.get("c", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    public void configuration_ReflectsSystemPropertyChanges() {
+        String key = "tamaya.test.ConfigValueCacheTest";
+        System.clearProperty(key);
+        try {
+            DefaultConfiguration config = new DefaultConfiguration(createContext(new SystemPropertySource()), true);
+            assertThat(config.get(key, Integer.class)).isNull();
+            System.setProperty(key, "1");
+            assertThat(config.get(key, Integer.class)).isEqualTo(1);
+            System.setProperty(key, "2");
+            assertThat(config.get(key, Integer.class)).isEqualTo(2);
+        }finally{
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    public void configuration_ReflectsUndeliveredChanges() {
+        // the change notifications are not delivered within the test
+        ChangingPropertySource ps = new ChangingPropertySource("async", 60_000L);
+        ps.set("a", "1");
+        ps.set("b", "2");
+        DefaultConfiguration config = new DefaultConfiguration(createContext(ps), true);
+        assertThat(config.get("a", Integer.class)).isEqualTo(1);
+        assertThat(config.get("b", Integer.class)).isEqualTo(2);
+        ps.set("a", "10");
+        assertThat(config.get("a", Integer.class)).isEqualTo(10);
+        assertThat(config.get("b", Integer.class)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.*;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
+import org.apache.tamaya.spisupport.propertysource.SystemPropertySource;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link ConfigurationIndex}.
+ */
+public class ConfigurationIndexTest {
+
+    private DefaultConfigurationContext createContext(PropertySource... propertySources){
+        return new DefaultConfigurationContext(ServiceContextManager.getServiceContext(),
+                Collections.singletonList(new MockedPropertyFilter()), Arrays.asList(propertySources),
+                Collections.emptyMap(), new DefaultMetaDataProvider(), true);
+    }
+
+    @Test
+    public void of_UnsupportedChangeSupport() {
+        assertThat(createContext(new MockedPropertySource()).getIndex()).isNull();
+    }
+
+    @Test
+    public void getIndex_DisabledByDefault() {
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(BuildablePropertySource.builder().build()),
+                Collections.emptyMap(), new DefaultMetaDataProvider());
+        assertThat(context.getIndex()).isNull();
+    }
+
+    @Test
+    public void get() {
+        PropertySource low = BuildablePropertySource.builder().withName("low")
+                .withSimpleProperty("a", "low").withSimpleProperty("b", "low")
+                .withSimpleProperty("Filternull", "low").build();
+        PropertySource high = BuildablePropertySource.builder().withName("high")
+                .withSimpleProperty("a", "high").build();
+        ConfigurationIndex index = createContext(low, high).getIndex();
+        assertThat(index).isNotNull();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get("a").getValue().getValue()).isEqualTo("high");
+        assertThat(index.get("a").getValues()).extracting(PropertyValue::getValue).containsExactly("high", "low");
+        assertThat(index.get("b").getValue().getValue()).isEqualTo("low");
+        assertThat(index.get("Filternull").getValue()).isNull();
+        assertThat(index.get("Filternull").getValues()).isEmpty();
+        assertThat(index.get("missing")).isNull();
+    }
+
+    @Test
+    public void update_OnChange() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        DefaultConfigurationContext context = createContext(
+                BuildablePropertySource.builder().withSimpleProperty("b", "2").build(), ps);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        assertThat(config.get("a")).isEqualTo("1");
+        assertThat(context.getIndex().get("c")).isNull();
+        ps.set("a", "10");
+        ps.set("c", "3");
+        assertThat(config.get("a")).isEqualTo("10");
+        assertThat(config.get("b", Integer.class)).isEqualTo(2);
+        assertThat(context.getIndex().get("c").getValue().getValue()).isEqualTo("3");
+        ps.remove("a");
+        assertThat(context.getIndex().get("a")).isNull();
+        assertThat(config.get("a")).isNull();
+    }
+
+    @Test
+    public void update_OnSystemPropertyChange() {
+        String key = "tamaya.test.ConfigurationIndexTest";
+        System.clearProperty(key);
+        try {
+            DefaultConfigurationContext context = createContext(new SystemPropertySource());
+            DefaultConfiguration config = new DefaultConfiguration(context);
+            assertThat(context.getIndex()).isNotNull();
+            assertThat(config.get(key)).isNull();
+            System.setProperty(key, "1");
+            assertThat(context.getIndex().get(key).getValue().getValue()).isEqualTo("1");
+            assertThat(config.get(key)).isEqualTo("1");
+            System.setProperty(key, "2");
+            assertThat(config.get(key)).isEqualTo("2");
+            System.clearProperty(key);
+            assertThat(context.getIndex().get(key)).isNull();
+        }finally{
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    public void update_OnUndeliveredChange() {
+        // the change notifications are not delivered within the test
+        ChangingPropertySource ps = new ChangingPropertySource("async", 60_000L);
+        ps.set("a", "1");
+        ps.set("b", "2");
+        DefaultConfigurationContext context = createContext(ps);
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        assertThat(config.get("a")).isEqualTo("1");
+        ps.set("a", "10");
+        ps.remove("b");
+        assertThat(config.get("a")).isEqualTo("10");
+        assertThat(context.getIndex().get("b")).isNull();
+        assertThat(context.getIndex().size()).isEqualTo(1);
+    }
+
+    @Test
+    public void forEach_Prefix() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("displays.2.name", "two");
+        ps.set("displays.1.name", "one");
+        ps.set("displays.1.Filternull", "x");
+        ps.set("displaysX", "x");
+        ps.set("other", "x");
+        DefaultConfigurationContext context = createContext(ps);
+        List<String> keys = new ArrayList<>();
+        context.getIndex().forEach("displays.", (key, entry) -> keys.add(key));
+        assertThat(keys).containsExactly("displays.1.Filternull", "displays.1.name", "displays.2.name");
+
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        assertThat(config.getProperties("displays.")).hasSize(2)
+                .containsEntry("displays.1.name", "one")
+                .containsEntry("displays.2.name", "two");
+        assertThat(config.getProperties("")).isEqualTo(config.getProperties());
+        ps.set("displays.3.name", "three");
+        ps.remove("displays.1.name");
+        assertThat(config.getProperties("displays.")).hasSize(2)
+                .containsEntry("displays.3.name", "three")
+                .containsEntry("displays.2.name", "two");
+        DefaultConfiguration unindexed = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.singletonList(new MockedPropertyFilter()),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider(), false));
+        assertThat(unindexed.getProperties("displays.")).isEqualTo(config.getProperties("displays."));
+    }
+
+    @Test
+    public void getProperties_PrefixFilteredWithConfigEntries() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("displays.1.name", "one");
+        ps.set("displays.2.name", "two");
+        ps.set("suffix", "!");
+        PropertyFilter filter = (value, ctx) -> {
+            PropertyValue suffix = ctx.getConfigEntries().get("suffix");
+            return suffix==null || value.getValue().endsWith(suffix.getValue())?value:
+                    PropertyValue.createValue(value.getKey(), value.getValue() + suffix.getValue());
+        };
+        for(boolean indexed:new boolean[]{true, false}){
+            DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContext(
+                    ServiceContextManager.getServiceContext(), Collections.singletonList(filter),
+                    Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider(), indexed));
+            assertThat(config.getProperties("displays.")).hasSize(2)
+                    .containsEntry("displays.1.name", "one!")
+                    .containsEntry("displays.2.name", "two!");
+            assertThat(config.getProperties("")).isEqualTo(config.getProperties());
+        }
+        DefaultConfigurationContext unfiltered = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider(), true);
+        assertThat(new DefaultConfiguration(unfiltered).getProperties("displays.")).hasSize(2)
+                .containsEntry("displays.1.name", "one")
+                .containsEntry("displays.2.name", "two");
+        assertThat(unfiltered.getIndex().size()).isEqualTo(3);
+    }
+
+    @Test
+    public void getProperties_PrefixReadsIndexOnly() {
+        AtomicInteger reads = new AtomicInteger();
+        ChangingPropertySource ps = new ChangingPropertySource(){
+            @Override
+            public Map<String, PropertyValue> getProperties() {
+                reads.incrementAndGet();
+                return super.getProperties();
+            }
+        };
+        for(int i=0;i<100;i++){
+            ps.set("key" + i, "v" + i);
+        }
+        ps.set("displays.1.name", "one");
+        ps.set("suffix", "!");
+        PropertyFilter filter = (value, ctx) -> {
+            PropertyValue suffix = ctx.getConfigEntries().get("suffix");
+            return suffix==null || value.getValue().endsWith(suffix.getValue())?value:
+                    PropertyValue.createValue(value.getKey(), value.getValue() + suffix.getValue());
+        };
+        DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.singletonList(filter),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider(), true));
+        // the index is created on first access
+        assertThat(config.getProperties("displays.")).containsOnly(entry("displays.1.name", "one!"));
+        reads.set(0);
+        assertThat(config.getProperties("displays.")).containsOnly(entry("displays.1.name", "one!"));
+        assertThat(reads.get()).isZero();
+        ps.set("suffix", "?");
+        assertThat(config.getProperties("displays.")).containsOnly(entry("displays.1.name", "one?"));
+    }
+}
@@ -18,9 +18,16 @@
  */
 package org.apache.tamaya.spisupport;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.tamaya.Configuration;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spi.ServiceContextManager;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
 import org.junit.Test;
 import static org.assertj.core.api.Assertions.*;
 
@@ -56,6 +63,38 @@ public class DefaultConfigValueEvaluatorTest {
         assertThat(result.get("confkey1").getValue()).isEqualTo("javaconf-value1");
     }
 
+    @Test
+    public void testEvaluateAllValues() {
+        ConfigurationContext context = createContext();
+        List<PropertyValue> result = new DefaultConfigValueEvaluator(false).evaluateAllValues("a", context);
+        assertThat(result).extracting(PropertyValue::getValue).containsExactly("high", "low");
+        result = new DefaultConfigValueEvaluator(false).evaluateAllValues("b", context);
+        assertThat(result).extracting(PropertyValue::getValue).containsExactly("low");
+    }
+
+    @Test
+    public void testEvaluateAllValues_ShortCircuit() {
+        ConfigurationContext context = createContext();
+        DefaultConfigValueEvaluator instance = new DefaultConfigValueEvaluator(true);
+        assertThat(instance.isShortCircuit()).isTrue();
+        assertThat(instance.evaluateAllValues("a", context))
+                .extracting(PropertyValue::getValue).containsExactly("high");
+        assertThat(instance.evaluateAllValues("b", context))
+                .extracting(PropertyValue::getValue).containsExactly("low");
+        assertThat(instance.evaluateAllValues("missing", context)).isEmpty();
+        assertThat(instance.evaluateRawValue("a", context).getValue()).isEqualTo("high");
+    }
+
+    private ConfigurationContext createContext() {
+        PropertySource low = BuildablePropertySource.builder().withName("low")
+                .withSimpleProperty("a", "low").withSimpleProperty("b", "low").build();
+        PropertySource high = BuildablePropertySource.builder().withName("high")
+                .withSimpleProperty("a", "high").build();
+        return new DefaultConfigurationContext(ServiceContextManager.getServiceContext(),
+                Collections.emptyList(), Arrays.asList(low, high), Collections.emptyMap(),
+                new DefaultMetaDataProvider());
+    }
+
     @Test
     public void testToString(){
         assertThat(new DefaultConfigValueEvaluator().toString()).isNotNull();
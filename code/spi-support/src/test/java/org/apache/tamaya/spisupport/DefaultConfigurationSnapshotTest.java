@@ -18,10 +18,12 @@
  */
 package org.apache.tamaya.spisupport;
 
+import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationSnapshot;
 import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ServiceContextManager;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -29,8 +31,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
@@ -253,4 +257,60 @@ public class DefaultConfigurationSnapshotTest {
         assertThat(snapshot.getKeys()).contains("foo");
     }
 
+    @Test
+    public void testFlatSnapshot() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ps.set("b", "2");
+        ps.set("Filternull", "3");
+        DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList(new MockedPropertyFilter()), Collections.singletonList(ps),
+                Collections.singletonMap(TypeLiteral.of(Integer.class),
+                        Collections.singletonList(new IntegerTestConverter())),
+                new DefaultMetaDataProvider()));
+        DefaultConfigurationSnapshot snapshot = new DefaultConfigurationSnapshot(config, true);
+        assertThat(snapshot.isFlat()).isTrue();
+        assertThat(snapshot.getProperties()).isEqualTo(config.getProperties()).hasSize(2);
+        assertThat(snapshot.getProperties()).isSameAs(snapshot.getProperties());
+        assertThat(snapshot.getKeys()).containsExactlyInAnyOrder("a", "b");
+        assertThat(snapshot.get("Filternull")).isNull();
+        assertThat(snapshot.getOrDefault("missing", "x")).isEqualTo("x");
+        assertThat(snapshot.get("a", Integer.class)).isEqualTo(1);
+        assertThat(snapshot.get("a", Integer.class)).isSameAs(snapshot.get("a", TypeLiteral.of(Integer.class)));
+        assertThat(snapshot.getOrDefault("missing", Integer.class, 5)).isEqualTo(5);
+        ps.set("a", "10");
+        assertThat(snapshot.get("a")).isEqualTo("1");
+        assertThat(snapshot.get("b", Integer.class)).isEqualTo(2);
+
+        DefaultConfigurationSnapshot subset = new DefaultConfigurationSnapshot(config, Arrays.asList("a", "c"), true);
+        assertThat(subset.getProperties()).containsOnlyKeys("a");
+        assertThat(subset.get("a")).isEqualTo("10");
+        assertThat(new DefaultConfigurationSnapshot(config, false).isFlat()).isFalse();
+    }
+
+    @Test
+    public void testFlatSnapshot_ConvertsFlatValues() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ps.set("invalid", "foo");
+        AtomicInteger filtered = new AtomicInteger();
+        DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList((value, ctx) -> {
+                    filtered.incrementAndGet();
+                    return value;
+                }), Collections.singletonList(ps),
+                Collections.singletonMap(TypeLiteral.of(Integer.class),
+                        Collections.singletonList(new IntegerTestConverter())),
+                new DefaultMetaDataProvider()));
+        DefaultConfigurationSnapshot snapshot = new DefaultConfigurationSnapshot(config, true);
+        int filteredOnCreation = filtered.get();
+        assertThat(snapshot.get("a", Integer.class)).isEqualTo(1);
+        assertThat(snapshot.get("a", String.class)).isEqualTo("1");
+        assertThat(snapshot.get("missing", Integer.class)).isNull();
+        assertThatThrownBy(() -> snapshot.get("invalid", Integer.class)).isInstanceOf(ConfigException.class);
+        // typed reads convert the flat values, without evaluating the property sources and filters again.
+        assertThat(filtered.get()).isEqualTo(filteredOnCreation);
+    }
 }
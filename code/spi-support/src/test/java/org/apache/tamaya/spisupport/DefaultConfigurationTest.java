@@ -18,14 +18,22 @@
  */
 package org.apache.tamaya.spisupport;
 
+import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.spi.*;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 
 public class DefaultConfigurationTest {
 
@@ -261,6 +269,231 @@ public class DefaultConfigurationTest {
         assertThat("testQ").isEqualTo(c.adapt(config -> "testQ"));
     }
 
+    @Test
+    public void getPrimitives() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("int", "0x10");
+        ps.set("long", "12345678901");
+        ps.set("double", "1.5");
+        ps.set("boolean", "true");
+        ps.set("invalid", "foo");
+        DefaultConfiguration c = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(ps),
+                Collections.singletonMap(TypeLiteral.of(Integer.class),
+                        Collections.singletonList(new IntegerTestConverter())),
+                new DefaultMetaDataProvider()));
+        assertThat(c.getInt("int", 1)).isEqualTo(16);
+        assertThat(c.getInt("int", 1)).isEqualTo(16);
+        assertThat(c.getInt("missing", 1)).isEqualTo(1);
+        assertThat(c.getLong("long", 1L)).isEqualTo(12345678901L);
+        assertThat(c.getDouble("double", 1.0)).isEqualTo(1.5);
+        assertThat(c.getBoolean("boolean", false)).isTrue();
+        assertThat(c.getBoolean("missing", true)).isTrue();
+        assertThatThrownBy(() -> c.getInt("invalid", 1)).isInstanceOf(ConfigException.class);
+
+        ps.set("int", "17");
+        ps.set("boolean", "false");
+        assertThat(c.getInt("int", 1)).isEqualTo(17);
+        assertThat(c.getBoolean("boolean", true)).isFalse();
+        ps.remove("int");
+        assertThat(c.getInt("int", 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void getPrimitives_CachedUntilSourceChanges() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("int", "5");
+        ps.set("other", "7");
+        AtomicInteger evaluations = new AtomicInteger();
+        DefaultConfiguration c = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList((value, ctx) -> {
+                    evaluations.incrementAndGet();
+                    return value;
+                }),
+                Collections.singletonList(ps), Collections.emptyMap(),
+                new DefaultMetaDataProvider()));
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(c.getInt("missing", 1)).isEqualTo(1);
+        int count = evaluations.get();
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(c.getInt("missing", 1)).isEqualTo(1);
+        assertThat(evaluations.get()).isEqualTo(count);
+        // only the changed key is evaluated again.
+        ps.set("other", "8");
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(evaluations.get()).isEqualTo(count);
+        ps.set("int", "6");
+        assertThat(c.getInt("int", 1)).isEqualTo(6);
+        assertThat(evaluations.get()).isGreaterThan(count);
+    }
+
+    @Test
+    public void getPrimitives_UntrackedSourceConvertsFilteredValueOnce() {
+        ChangingPropertySource ps = new ChangingPropertySource(){
+            @Override
+            public ChangeSupport getChangeSupport() {
+                return ChangeSupport.UNSUPPORTED;
+            }
+        };
+        ps.set("int", " 5");
+        AtomicInteger conversions = new AtomicInteger();
+        PropertyConverter<Integer> converter = (value, ctx) -> {
+            conversions.incrementAndGet();
+            return Integer.valueOf(value);
+        };
+        DefaultConfiguration c = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList((value, ctx) -> value.mutable().setValue(value.getValue().trim())),
+                Collections.singletonList(ps),
+                Collections.singletonMap(TypeLiteral.of(Integer.class), Collections.singletonList(converter)),
+                new DefaultMetaDataProvider()));
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(conversions.get()).isEqualTo(1);
+        // the raw value changed, but not the filtered one.
+        ps.set("int", "5 ");
+        assertThat(c.getInt("int", 1)).isEqualTo(5);
+        assertThat(conversions.get()).isEqualTo(1);
+        ps.set("int", " 6 ");
+        assertThat(c.getInt("int", 1)).isEqualTo(6);
+        assertThat(conversions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getPropertiesParallel() {
+        ChangingPropertySource ps1 = new ChangingPropertySource("ps1");
+        ChangingPropertySource ps2 = new ChangingPropertySource("ps2");
+        ChangingPropertySource ps3 = new ChangingPropertySource("ps3");
+        for(int i=0;i<PropertyFiltering.PARALLEL_FILTER_THRESHOLD*2;i++){
+            ps1.set("key"+i, "ps1");
+            if(i%2==0){
+                ps2.set("key"+i, "ps2");
+            }
+            if(i%3==0){
+                ps3.set("key"+i, "ps3");
+            }
+            if(i%5==0){
+                ps3.set("Filternull"+i, "ps3");
+            }
+        }
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Arrays.asList(new MockedPropertyFilter(),
+                        (value, ctx) -> value.getValue().endsWith(value.getKey())?value:
+                                value.mutable().setValue(value.getValue() + "-" + value.getKey())),
+                Arrays.asList(ps1, ps2, ps3), Collections.emptyMap(), new DefaultMetaDataProvider());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            Map<String, String> sequential = new DefaultConfiguration(context, false, null).getProperties();
+            Map<String, String> parallel = new DefaultConfiguration(context, false, pool).getProperties();
+            assertThat(parallel).isEqualTo(sequential);
+            assertThat(parallel).hasSize(PropertyFiltering.PARALLEL_FILTER_THRESHOLD*2)
+                    .containsEntry("key0", "ps3-key0")
+                    .containsEntry("key2", "ps2-key2")
+                    .containsEntry("key1", "ps1-key1")
+                    .doesNotContainKey("Filternull0");
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void getPropertiesParallel_UsesEvaluatorSubclass() {
+        ChangingPropertySource ps1 = new ChangingPropertySource("ps1");
+        ChangingPropertySource ps2 = new ChangingPropertySource("ps2");
+        ps1.set("key", "value");
+        ps2.set("other", "value");
+        AtomicInteger evaluations = new AtomicInteger();
+        ConfigValueEvaluator evaluator = new DefaultConfigValueEvaluator(){
+            @Override
+            public Map<String, PropertyValue> evaluateRawValues(ConfigurationContext context) {
+                evaluations.incrementAndGet();
+                return super.evaluateRawValues(context);
+            }
+        };
+        ServiceContext serviceContext = mock(ServiceContext.class,
+                delegatesTo(ServiceContextManager.getServiceContext()));
+        doReturn(evaluator).when(serviceContext).getService(ConfigValueEvaluator.class);
+        DefaultConfigurationContext context = new DefaultConfigurationContext(serviceContext,
+                Collections.singletonList(new MockedPropertyFilter()), Arrays.asList(ps1, ps2),
+                Collections.emptyMap(), new DefaultMetaDataProvider());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try{
+            DefaultConfiguration c = new DefaultConfiguration(context, false, pool);
+            assertThat(c.getProperties()).containsEntry("key", "value");
+            assertThat(c.getProperties("ke")).containsEntry("key", "value");
+            assertThat(evaluations.get()).isEqualTo(2);
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void getSharedParallelPool() {
+        ForkJoinPool pool = DefaultConfiguration.getSharedParallelPool(3);
+        assertThat(pool.getParallelism()).isEqualTo(3);
+        assertThat(DefaultConfiguration.getSharedParallelPool(3)).isSameAs(pool);
+        ForkJoinPool other = DefaultConfiguration.getSharedParallelPool(2);
+        assertThat(other).isNotSameAs(pool);
+        // the pool of the first parallelism is still in use by instances created before.
+        assertThat(pool.isShutdown()).isFalse();
+        assertThat(DefaultConfiguration.getSharedParallelPool(3)).isSameAs(pool);
+        assertThatThrownBy(() -> DefaultConfiguration.getSharedParallelPool(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void forEach() {
+        ChangingPropertySource ps1 = new ChangingPropertySource("ps1");
+        ChangingPropertySource ps2 = new ChangingPropertySource("ps2");
+        ps1.set("a", "ps1");
+        ps1.set("b", "ps1");
+        ps1.set("Filternull", "ps1");
+        ps2.set("b", "ps2");
+        ps2.set("c", "ps2");
+        ps2.set("a", null);
+        DefaultConfiguration c = new DefaultConfiguration(new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList(new MockedPropertyFilter()),
+                Arrays.asList(ps1, ps2), Collections.emptyMap(), new DefaultMetaDataProvider()));
+        Map<String, String> result = new HashMap<>();
+        c.forEach((k, v) -> assertThat(result.put(k, v)).isNull());
+        assertThat(result).isEqualTo(c.getProperties()).hasSize(3)
+                .containsEntry("a", "ps1")
+                .containsEntry("b", "ps2")
+                .containsEntry("c", "ps2");
+
+        Map<String, String> mocked = new HashMap<>();
+        DefaultConfiguration mockedConfig = new DefaultConfiguration(new MockedConfigurationContext());
+        mockedConfig.forEach(mocked::put);
+        assertThat(mocked).isEqualTo(mockedConfig.getProperties());
+    }
+
+    @Test
+    public void forEach_FiltersWithConfigEntries() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ps.set("b", "2");
+        ps.set("suffix", "!");
+        PropertyFilter filter = (value, ctx) -> {
+            PropertyValue suffix = ctx.getConfigEntries().get("suffix");
+            return suffix==null || value.getValue().endsWith(suffix.getValue())?value:
+                    PropertyValue.createValue(value.getKey(), value.getValue() + suffix.getValue());
+        };
+        for(boolean indexed:new boolean[]{true, false}){
+            DefaultConfiguration c = new DefaultConfiguration(new DefaultConfigurationContext(
+                    ServiceContextManager.getServiceContext(), Collections.singletonList(filter),
+                    Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider(), indexed));
+            Map<String, String> result = new HashMap<>();
+            c.forEach((k, v) -> assertThat(result.put(k, v)).isNull());
+            assertThat(result).isEqualTo(c.getProperties())
+                    .containsEntry("a", "1!")
+                    .containsEntry("b", "2!");
+        }
+    }
+
     @Test
     public void testEqualsAndHashAndToStringValues() {
         ConfigurationContext sharedContext = new MockedConfigurationContext();
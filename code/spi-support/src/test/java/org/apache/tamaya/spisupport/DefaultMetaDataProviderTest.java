@@ -22,6 +22,7 @@ import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.ServiceContextManager;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -87,6 +88,80 @@ public class DefaultMetaDataProviderTest {
         assertThat(provider.getMetaData("foo")).isNotNull().isEmpty();
     }
 
+    @Test
+    public void getMetaData_FromPropertySources() {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("a", "1");
+        ps.set("[(META)a].type", "int");
+        ps.set("[(META)b].type", "string");
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider());
+        DefaultMetaDataProvider provider = new DefaultMetaDataProvider();
+        provider.init(context);
+        assertThat(provider.getMetaData("a")).containsEntry("type", "int");
+        assertThat(provider.getMetaData("b")).containsEntry("type", "string");
+        Map<String, String> metaB = provider.getMetaData("b");
+        assertThat(provider.getMetaData("b")).isSameAs(metaB);
+
+        provider.setMeta("a", "type", "long");
+        assertThat(provider.getMetaData("a")).containsEntry("type", "long");
+        provider.reset("a");
+        assertThat(provider.getMetaData("a")).containsEntry("type", "int");
+
+        ps.set("[(META)a].type", "double");
+        ps.remove("[(META)b].type");
+        assertThat(provider.getMetaData("a")).containsEntry("type", "double");
+        assertThat(provider.getMetaData("b")).isEmpty();
+    }
+
+    @Test
+    public void init_ResetsMetaDataOfPreviousContext() {
+        ChangingPropertySource ps1 = new ChangingPropertySource("ps1");
+        ps1.set("[(META)x].a", "1");
+        ChangingPropertySource ps2 = new ChangingPropertySource("ps2");
+        ps2.set("[(META)y].a", "2");
+        DefaultMetaDataProvider provider = new DefaultMetaDataProvider();
+        provider.setMeta("z", "a", "3");
+        provider.init(createContext(ps1));
+        assertThat(provider.getMetaData("x")).containsEntry("a", "1");
+        provider.init(createContext(ps2));
+        assertThat(provider.getMetaData("x")).isEmpty();
+        assertThat(provider.getMetaData("y")).containsEntry("a", "2");
+        assertThat(provider.getMetaData("z")).containsEntry("a", "3");
+        // changes of the previous context are not applied anymore.
+        ps1.set("[(META)y].a", "1");
+        assertThat(provider.getMetaData("y")).containsEntry("a", "2");
+        ps2.set("[(META)y].a", "4");
+        assertThat(provider.getMetaData("y")).containsEntry("a", "4");
+    }
+
+    @Test
+    public void listener_DoesNotKeepProviderReachable() throws InterruptedException {
+        ChangingPropertySource ps = new ChangingPropertySource();
+        ps.set("[(META)x].a", "1");
+        WeakReference<DefaultMetaDataProvider> ref = new WeakReference<>(loadProvider(ps));
+        for(int i=0;i<50 && ref.get()!=null;i++){
+            System.gc();
+            Thread.sleep(20L);
+        }
+        assertThat(ref.get()).isNull();
+        // the listener of the provider collected is removed on the next notification.
+        ps.set("[(META)x].a", "2");
+    }
+
+    private static DefaultMetaDataProvider loadProvider(ChangingPropertySource ps) {
+        DefaultMetaDataProvider provider = new DefaultMetaDataProvider();
+        provider.init(createContext(ps));
+        assertThat(provider.getMetaData("x")).containsEntry("a", "1");
+        return provider;
+    }
+
+    private static ConfigurationContext createContext(ChangingPropertySource ps) {
+        return new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider());
+    }
 
     @Test
     public void testToString() {
@@ -23,7 +23,16 @@ import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spisupport.propertysource.SystemPropertySource;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -108,4 +117,145 @@ public class DefaultPropertySourceSnapshotTest {
         assertThat(toString).contains("FrozenPropertySource");
         assertThat(toString).contains(myPS.getName());
     }
+
+    @Test
+    public void testSharesUnchangedValues() throws Exception {
+        ChangingPropertySource source = new ChangingPropertySource("sharing");
+        for(int i=0;i<100;i++){
+            source.set("key" + i, "value" + i);
+        }
+        DefaultPropertySourceSnapshot ps1 = DefaultPropertySourceSnapshot.of(source);
+        DefaultPropertySourceSnapshot ps2 = DefaultPropertySourceSnapshot.of(source);
+        assertThat(ps2.getProperties()).isSameAs(ps1.getProperties());
+        assertThat(ps1.getKeys()).hasSize(100);
+
+        source.set("key5", "changed");
+        source.remove("key6");
+        source.set("new", "value");
+        DefaultPropertySourceSnapshot ps3 = DefaultPropertySourceSnapshot.of(source);
+        assertThat(ps3.get("key5").getValue()).isEqualTo("changed");
+        assertThat(ps3.get("key6")).isNull();
+        assertThat(ps3.get("new").getValue()).isEqualTo("value");
+        assertThat(ps3.getKeys()).hasSize(100).contains("new").doesNotContain("key6");
+        assertThat(ps3.getProperties()).isEqualTo(source.getProperties());
+        assertThat(ps1.get("key5").getValue()).isEqualTo("value5");
+        assertThat(ps1.get("key6").getValue()).isEqualTo("value6");
+        assertThat(ps1.get("new")).isNull();
+        assertThat(ps1.getKeys()).hasSize(100);
+    }
+
+    @Test
+    public void testSharing_DetectsChangesWithoutNotification() throws Exception {
+        ChangingPropertySource source = new ChangingPropertySource("silent"){
+            @Override
+            public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+                // does not notify
+            }
+        };
+        source.set("a", "1");
+        source.set("b", "2");
+        DefaultPropertySourceSnapshot ps1 = DefaultPropertySourceSnapshot.of(source);
+        source.set("a", "changed");
+        source.remove("b");
+        DefaultPropertySourceSnapshot ps2 = DefaultPropertySourceSnapshot.of(source);
+        assertThat(ps2.getProperties()).isEqualTo(source.getProperties());
+        assertThat(ps1.get("a").getValue()).isEqualTo("1");
+        assertThat(ps1.get("b").getValue()).isEqualTo("2");
+    }
+
+    @Test
+    public void testSharing_DetectsChangesNotDeliveredYet() throws Exception {
+        QueueingExecutor executor = new QueueingExecutor();
+        ChangeMonitoring.setDispatchExecutor(executor);
+        try{
+            ChangingPropertySource source = new ChangingPropertySource("coalescing", 1L);
+            source.set("a", "1");
+            source.set("b", "1");
+            DefaultPropertySourceSnapshot.of(source);
+            source.set("a", "2");
+            // deliver the change of a only
+            Runnable delivery = executor.tasks.poll(10, TimeUnit.SECONDS);
+            assertThat(delivery).isNotNull();
+            delivery.run();
+            source.set("b", "2");
+            DefaultPropertySourceSnapshot ps = DefaultPropertySourceSnapshot.of(source);
+            assertThat(ps.get("a").getValue()).isEqualTo("2");
+            assertThat(ps.get("b").getValue()).isEqualTo("2");
+            assertThat(ps.getProperties()).isEqualTo(source.getProperties());
+        }finally{
+            ChangeMonitoring.setDispatchExecutor(null);
+        }
+    }
+
+    @Test
+    public void testSharing_DetectsChangesDuringDelivery() throws Exception {
+        QueueingExecutor executor = new QueueingExecutor();
+        ChangeMonitoring.setDispatchExecutor(executor);
+        try{
+            AtomicReference<DefaultPropertySourceSnapshot> snapshot = new AtomicReference<>();
+            ChangingPropertySource source = new ChangingPropertySource("interleaving", 1L){
+                @Override
+                public void addChangeListener(BiConsumer<Set<String>, PropertySource> l) {
+                    super.addChangeListener((keys, ps) -> {
+                        if(keys.contains("a")){
+                            // the change of b lands after the keys of the change of a have been taken.
+                            set("b", "2");
+                            l.accept(keys, ps);
+                            snapshot.set(DefaultPropertySourceSnapshot.of(this));
+                        }else{
+                            l.accept(keys, ps);
+                        }
+                    });
+                }
+            };
+            source.set("a", "1");
+            source.set("b", "1");
+            DefaultPropertySourceSnapshot.of(source);
+            source.set("a", "2");
+            Runnable delivery = executor.tasks.poll(10, TimeUnit.SECONDS);
+            assertThat(delivery).isNotNull();
+            delivery.run();
+            assertThat(snapshot.get()).isNotNull();
+            assertThat(snapshot.get().get("a").getValue()).isEqualTo("2");
+            assertThat(snapshot.get().get("b").getValue()).isEqualTo("2");
+        }finally{
+            ChangeMonitoring.setDispatchExecutor(null);
+        }
+    }
+
+    /**
+     * Executor queueing the tasks, which are run by the test.
+     */
+    private static final class QueueingExecutor extends AbstractExecutorService {
+        private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
 }
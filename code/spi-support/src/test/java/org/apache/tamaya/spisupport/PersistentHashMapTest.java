@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentHashMap}.
+ */
+public class PersistentHashMapTest {
+
+    /** Key with a configurable hash code, for creating collisions. */
+    private static final class Key implements Serializable {
+        private final String name;
+        private final int hash;
+
+        Key(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void plusMinus_RandomOperations() {
+        Random random = new Random(42);
+        Map<Integer, String> expected = new HashMap<>();
+        PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+        for(int i=0;i<20000;i++){
+            int key = random.nextInt(2000);
+            if(random.nextInt(3)==0){
+                expected.remove(key);
+                map = map.minus(key);
+            }else{
+                String value = "v" + random.nextInt(10);
+                expected.put(key, value);
+                map = map.plus(key, value);
+            }
+        }
+        assertThat(map).hasSize(expected.size()).isEqualTo(expected);
+        assertThat(map.entrySet()).hasSize(expected.size());
+        for(Integer key:expected.keySet()){
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    public void plus_KeepsPredecessorUnchanged() {
+        PersistentHashMap<String, String> map1 = PersistentHashMap.of(mapOf("a", "1", "b", "2"));
+        PersistentHashMap<String, String> map2 = map1.plus("a", "changed").plus("c", "3");
+        PersistentHashMap<String, String> map3 = map2.minus("b");
+        assertThat(map1).isEqualTo(mapOf("a", "1", "b", "2"));
+        assertThat(map2).isEqualTo(mapOf("a", "changed", "b", "2", "c", "3"));
+        assertThat(map3).isEqualTo(mapOf("a", "changed", "c", "3"));
+    }
+
+    @Test
+    public void plusMinus_ReturnsSameInstanceIfUnchanged() {
+        PersistentHashMap<String, String> map = PersistentHashMap.of(mapOf("a", "1"));
+        assertThat(map.plus("a", "1")).isSameAs(map);
+        assertThat(map.minus("b")).isSameAs(map);
+        assertThat(map.minus("a")).isEmpty();
+    }
+
+    @Test
+    public void plusMinus_Collisions() {
+        Key a = new Key("a", 7);
+        Key b = new Key("b", 7);
+        Key c = new Key("c", 7);
+        Key d = new Key("d", 7 + 32);
+        PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String>empty()
+                .plus(a, "a").plus(b, "b").plus(c, "c").plus(d, "d");
+        assertThat(map).hasSize(4);
+        assertThat(map.get(a)).isEqualTo("a");
+        assertThat(map.get(b)).isEqualTo("b");
+        assertThat(map.get(c)).isEqualTo("c");
+        assertThat(map.get(d)).isEqualTo("d");
+        assertThat(map.get(new Key("e", 7))).isNull();
+        map = map.plus(b, "b2").minus(a);
+        assertThat(map).hasSize(3);
+        assertThat(map.get(b)).isEqualTo("b2");
+        map = map.minus(c).minus(d);
+        assertThat(map).hasSize(1);
+        assertThat(map.get(b)).isEqualTo("b2");
+        assertThat(map.minus(b)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serialization() throws Exception {
+        PersistentHashMap<String, String> map = PersistentHashMap.of(mapOf("a", "1", "b", "2"));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try(ObjectOutputStream oos = new ObjectOutputStream(bos)){
+            oos.writeObject(map);
+        }
+        try(ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))){
+            Map<String, String> read = (Map<String, String>) ois.readObject();
+            assertThat(read).isEqualTo(map);
+        }
+    }
+
+    private static Map<String, String> mapOf(String... keyValues) {
+        Map<String, String> result = new HashMap<>();
+        for(int i=0;i<keyValues.length;i+=2){
+            result.put(keyValues[i], keyValues[i+1]);
+        }
+        return result;
+    }
+}
@@ -249,6 +249,21 @@ public class PropertyConverterManagerTest {
         }
     }
 
+    @Test
+    public void testLookupIsCachedAndResetOnRegister() {
+        ServiceContext serviceContext = ServiceContextManager.getServiceContext(getClass().getClassLoader());
+        PropertyConverterManager manager = new PropertyConverterManager(serviceContext, true);
+        List<PropertyConverter<C>> converters = manager.getPropertyConverters(TypeLiteral.of(C.class));
+        assertThat(converters).hasSize(1);
+        assertThat(manager.getPropertyConverters(TypeLiteral.of(C.class))).isSameAs(converters);
+
+        PropertyConverter<C> converter = (value, context) -> new C(value);
+        manager.register(TypeLiteral.of(C.class), converter);
+        List<PropertyConverter<C>> updated = manager.getPropertyConverters(TypeLiteral.of(C.class));
+        assertThat(updated).hasSize(2).contains(converter);
+        assertThatThrownBy(() -> updated.add(converter)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
     public static class MyType {
 
         private final String typeValue;
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.*;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PropertyFilterIndex}.
+ */
+public class PropertyFilterIndexTest {
+
+    private static final class ScopedFilter implements PropertyFilter {
+        private final Collection<String> prefixes;
+        private final String suffix;
+
+        ScopedFilter(String suffix, String... prefixes) {
+            this.suffix = suffix;
+            this.prefixes = prefixes.length==0?null:Arrays.asList(prefixes);
+        }
+
+        @Override
+        public PropertyValue filterProperty(PropertyValue value, FilterContext context) {
+            if(value.getValue().contains(suffix)){
+                return value;
+            }
+            return value.mutable().setValue(value.getValue() + suffix);
+        }
+
+        @Override
+        public Collection<String> getKeyPrefixes() {
+            return prefixes;
+        }
+    }
+
+    @Test
+    public void getFilters_Unscoped() {
+        List<PropertyFilter> filters = Arrays.asList(new ScopedFilter("a"), new ScopedFilter("b"));
+        PropertyFilterIndex index = PropertyFilterIndex.of(filters);
+        assertThat(index.getFilters("foo")).isSameAs(filters);
+        assertThat(index.getFilters("")).isSameAs(filters);
+    }
+
+    @Test
+    public void getFilters_Scoped() {
+        PropertyFilter all = new ScopedFilter("all");
+        PropertyFilter secret = new ScopedFilter("secret", "secret.", "db.password");
+        PropertyFilter db = new ScopedFilter("db", "db.");
+        PropertyFilter meta = new ScopedFilter("meta", "_");
+        PropertyFilterIndex index = PropertyFilterIndex.of(Arrays.asList(secret, all, db, meta));
+        assertThat(index.getFilters("foo")).containsExactly(all);
+        assertThat(index.getFilters("")).containsExactly(all);
+        assertThat(index.getFilters("secret")).containsExactly(all);
+        assertThat(index.getFilters("secret.key")).containsExactly(secret, all);
+        assertThat(index.getFilters("db.url")).containsExactly(all, db);
+        assertThat(index.getFilters("db.password")).containsExactly(secret, all, db);
+        assertThat(index.getFilters("db.password2")).containsExactly(secret, all, db);
+        assertThat(index.getFilters("_db.password")).containsExactly(all, meta);
+        assertThat(index.getFilters("db.url")).isSameAs(index.getFilters("db.user"));
+    }
+
+    @Test
+    public void configuration_AppliesScopedFiltersOnly() {
+        PropertySource ps = BuildablePropertySource.builder()
+                .withSimpleProperty("db.password", "x")
+                .withSimpleProperty("db.url", "y")
+                .withSimpleProperty("other", "z").build();
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Arrays.asList(new ScopedFilter("-all"), new ScopedFilter("-secret", "db.password")),
+                Collections.singletonList(ps), Collections.emptyMap(), new DefaultMetaDataProvider());
+        DefaultConfiguration config = new DefaultConfiguration(context);
+        assertThat(config.get("db.password")).isEqualTo("x-all-secret");
+        assertThat(config.get("db.url")).isEqualTo("y-all");
+        assertThat(config.get("other")).isEqualTo("z-all");
+        assertThat(config.getProperties()).containsEntry("db.password", "x-all-secret")
+                .containsEntry("other", "z-all");
+    }
+}
@@ -20,13 +20,26 @@ package org.apache.tamaya.spisupport;
 
 import org.apache.tamaya.spi.ChangeSupport;
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
 import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -166,4 +179,189 @@ public class PropertySourceChangeSupportTest {
         String v2 = support.getVersion();
         assertThat(v1).isEqualTo(v2);
     }
+
+    @Test
+    public void scheduleChangeMonitor_Periodic() throws InterruptedException {
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps);
+        AtomicInteger count = new AtomicInteger();
+        support.scheduleChangeMonitor(() -> {
+            count.incrementAndGet();
+            return Collections.singletonMap("foo", PropertyValue.createValue("foo", "bar"));
+        }, 20, TimeUnit.MILLISECONDS);
+        Thread.sleep(500L);
+        support.cancelSchedule();
+        assertThat(count.get()).isGreaterThan(3);
+        assertThat(support.getValue("foo").getValue()).isEqualTo("bar");
+        int cancelledCount = count.get();
+        Thread.sleep(100L);
+        assertThat(count.get()).isEqualTo(cancelledCount);
+    }
+
+    @Test
+    public void scheduleChangeMonitor_SkipsUnchanged() throws InterruptedException {
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps);
+        support.load(Collections.singletonMap("foo", PropertyValue.createValue("foo", "bar")));
+        String version = support.getVersion();
+        AtomicInteger count = new AtomicInteger();
+        support.scheduleChangeMonitor(() -> {
+            count.incrementAndGet();
+            return null;
+        }, 20, TimeUnit.MILLISECONDS);
+        Thread.sleep(200L);
+        support.cancelSchedule();
+        assertThat(count.get()).isGreaterThan(1);
+        assertThat(support.getVersion()).isEqualTo(version);
+        assertThat(support.getValue("foo").getValue()).isEqualTo("bar");
+    }
+
+    @Test
+    public void scheduleChangeMonitor_BacksOffOnFailure() throws InterruptedException {
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps);
+        AtomicInteger count = new AtomicInteger();
+        support.scheduleChangeMonitor(() -> {
+            count.incrementAndGet();
+            throw new IllegalStateException("test");
+        }, 20, TimeUnit.MILLISECONDS);
+        Thread.sleep(500L);
+        support.cancelSchedule();
+        // 20, 40, 80, 160, 320 ms: without back-off about 25 attempts were made
+        assertThat(count.get()).isBetween(1, 6);
+    }
+
+    @Test
+    public void scheduleChangeMonitor_WatchesFiles() throws Exception {
+        Path dir = Files.createTempDirectory("tamaya");
+        Path file = dir.resolve("test.properties");
+        Files.write(file, Collections.singletonList("a=1"));
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps);
+        support.load(Collections.emptyMap());
+        CountDownLatch latch = new CountDownLatch(1);
+        // writing a file may be signalled in several steps, so wait for the final content
+        support.addChangeListener((keys, source) -> {
+            PropertyValue content = support.getValue("content");
+            if(content!=null && "a=2".equals(content.getValue())){
+                latch.countDown();
+            }
+        });
+        support.scheduleChangeMonitor(file.toUri().toURL(), () -> {
+            try {
+                return Collections.singletonMap("content",
+                        PropertyValue.createValue("content", new String(Files.readAllBytes(file), "UTF-8").trim()));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, 1, TimeUnit.HOURS);
+        try{
+            Files.write(file, Collections.singletonList("a=2"));
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(support.getValue("content").getValue()).isEqualTo("a=2");
+        }finally{
+            support.cancelSchedule();
+            Files.delete(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void asyncDispatch_CoalescesChanges() throws InterruptedException {
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps, 200L);
+        BlockingQueue<Set<String>> events = new LinkedBlockingQueue<>();
+        support.addChangeListener((keys, source) -> events.add(keys));
+        Map<String, PropertyValue> values = new HashMap<>();
+        values.put("a", PropertyValue.createValue("a", "1"));
+        support.load(new HashMap<>(values));
+        values.put("b", PropertyValue.createValue("b", "1"));
+        support.load(new HashMap<>(values));
+        values.put("a", PropertyValue.createValue("a", "2"));
+        support.load(new HashMap<>(values));
+        assertThat(support.getValue("a").getValue()).isEqualTo("2");
+        assertThat(events.poll(5, TimeUnit.SECONDS)).containsExactlyInAnyOrder("a", "b");
+        assertThat(events.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    public void asyncDispatch_SlowListenerDoesNotBlock() throws InterruptedException {
+        PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+        PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps, 0L);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<Set<String>> slowEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<Set<String>> events = new LinkedBlockingQueue<>();
+        AtomicInteger active = new AtomicInteger();
+        AtomicBoolean overlapping = new AtomicBoolean();
+        support.addChangeListener((keys, source) -> {
+            if(active.incrementAndGet()>1){
+                overlapping.set(true);
+            }
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowEvents.add(keys);
+            active.decrementAndGet();
+        });
+        support.addChangeListener((keys, source) -> events.add(keys));
+        support.load(Collections.singletonMap("a", PropertyValue.createValue("a", "1")));
+        assertThat(events.poll(5, TimeUnit.SECONDS)).containsExactly("a");
+        support.load(Collections.singletonMap("b", PropertyValue.createValue("b", "1")));
+        assertThat(events.poll(5, TimeUnit.SECONDS)).containsExactlyInAnyOrder("a", "b");
+        assertThat(slowEvents).isEmpty();
+        release.countDown();
+        // the slow listener receives all changes, one event at a time, the events possibly coalesced
+        assertThat(receiveKeys(slowEvents, 2)).containsExactlyInAnyOrder("a", "b");
+        assertThat(overlapping).isFalse();
+    }
+
+    @Test
+    public void asyncDispatch_RedispatchesRejectedEvents() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        ChangeMonitoring.setDispatchExecutor(executor);
+        try{
+            // occupy the only thread, so events are rejected
+            executor.execute(() -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            PropertySource ps = BuildablePropertySource.builder().withName("test").build();
+            PropertySourceChangeSupport support = new PropertySourceChangeSupport(ChangeSupport.SUPPORTED, ps, 0L);
+            BlockingQueue<Set<String>> events = new LinkedBlockingQueue<>();
+            support.addChangeListener((keys, source) -> events.add(keys));
+            support.load(Collections.singletonMap("a", PropertyValue.createValue("a", "1")));
+            Map<String, PropertyValue> values = new HashMap<>();
+            values.put("a", PropertyValue.createValue("a", "1"));
+            values.put("b", PropertyValue.createValue("b", "1"));
+            support.load(values);
+            Thread.sleep(50L);
+            assertThat(events).isEmpty();
+            release.countDown();
+            assertThat(receiveKeys(events, 2)).containsExactlyInAnyOrder("a", "b");
+        }finally{
+            ChangeMonitoring.setDispatchExecutor(null);
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Receives events, until the given number of distinct keys has been received.
+     */
+    private static Set<String> receiveKeys(BlockingQueue<Set<String>> events, int count)
+            throws InterruptedException {
+        Set<String> keys = new HashSet<>();
+        while(keys.size()<count){
+            Set<String> event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event").isNotNull();
+            keys.addAll(event);
+        }
+        return keys;
+    }
 }
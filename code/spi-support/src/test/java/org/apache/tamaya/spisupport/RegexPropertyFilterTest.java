@@ -75,6 +75,44 @@ public class RegexPropertyFilterTest {
         
     }
 
+    @org.junit.Test
+    public void testFilterProperty_MultipleExpressions() throws Exception {
+        FilterContext ctx = new FilterContext(prop1, configContext);
+        RegexPropertyFilter filter = new RegexPropertyFilter();
+        filter.setIncludes("test2", "test1\\..*", "t[a-z]+\\d", "(t)est\\1");
+        assertThat(filter.filterProperty(prop1, ctx)).isEqualTo(prop1);
+        assertThat(filter.filterProperty(prop2, ctx)).isEqualTo(prop2);
+        assertThat(filter.filterProperty(prop3, ctx)).isEqualTo(prop3);
+        assertThat(filter.filterProperty(PropertyValue.of("test1x", "v", "test"), ctx)).isNull();
+        assertThat(filter.filterProperty(PropertyValue.of("testt", "v", "test"), ctx)).isNotNull();
+        assertThat(filter.filterProperty(PropertyValue.of("test22", "v", "test"), ctx)).isNull();
+        filter = new RegexPropertyFilter();
+        filter.setExcludes("test2*", "test1.*");
+        assertThat(filter.filterProperty(prop1, ctx)).isNull();
+        assertThat(filter.filterProperty(prop2, ctx)).isNull();
+        assertThat(filter.filterProperty(PropertyValue.of("test", "v", "test"), ctx)).isNull();
+        assertThat(filter.filterProperty(PropertyValue.of("tes", "v", "test"), ctx)).isNotNull();
+    }
+
+    @org.junit.Test
+    public void testFilterProperty_SameGroupNames() throws Exception {
+        FilterContext ctx = new FilterContext(prop1, configContext);
+        RegexPropertyFilter filter = new RegexPropertyFilter();
+        filter.setIncludes("(?<id>a.*)", "(?<id>b.*)");
+        assertThat(filter.filterProperty(PropertyValue.of("a1", "v", "test"), ctx)).isNotNull();
+        assertThat(filter.filterProperty(PropertyValue.of("b1", "v", "test"), ctx)).isNotNull();
+        assertThat(filter.filterProperty(PropertyValue.of("c1", "v", "test"), ctx)).isNull();
+        filter = new RegexPropertyFilter();
+        filter.setExcludes("(?<id>a.*)", "(?<id>b.*)");
+        assertThat(filter.filterProperty(PropertyValue.of("b1", "v", "test"), ctx)).isNull();
+        assertThat(filter.filterProperty(PropertyValue.of("c1", "v", "test"), ctx)).isNotNull();
+    }
+
+    @org.junit.Test(expected = java.util.regex.PatternSyntaxException.class)
+    public void testSetIncludes_InvalidExpression() throws Exception {
+        new RegexPropertyFilter().setIncludes("test(");
+    }
+
     @org.junit.Test
     public void testToString() throws Exception {
         RegexPropertyFilter filter = new RegexPropertyFilter();
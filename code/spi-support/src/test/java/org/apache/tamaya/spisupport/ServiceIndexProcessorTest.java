@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Priority;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ServiceIndexProcessor} and the loading of indexed services by {@link DefaultServiceContext}.
+ */
+public class ServiceIndexProcessorTest {
+
+    private static final String SERVICE_SOURCE = "package test.idx;\n" +
+            "@javax.annotation.Priority(%d)\n" +
+            "public class %s implements Runnable {\n" +
+            "    public static boolean serviceLoader;\n" +
+            "    public %s() {\n" +
+            "        for (StackTraceElement e : new Throwable().getStackTrace()) {\n" +
+            "            serviceLoader |= e.getClassName().startsWith(\"java.util.ServiceLoader\");\n" +
+            "        }\n" +
+            "    }\n" +
+            "    public void run() {}\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File classesDir;
+
+    @Before
+    public void setUp() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        File srcDir = folder.newFolder("src");
+        classesDir = folder.newFolder("classes");
+        writeFile(new File(srcDir, "test/idx/Low.java"), String.format(SERVICE_SOURCE, 5, "Low", "Low"));
+        writeFile(new File(srcDir, "test/idx/High.java"), String.format(SERVICE_SOURCE, 10, "High", "High"));
+        writeFile(new File(classesDir, "META-INF/services/java.lang.Runnable"), "# services\ntest.idx.Low\ntest.idx.High\n");
+
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)){
+            Iterable<? extends JavaFileObject> sources = fileManager.getJavaFileObjects(
+                    new File(srcDir, "test/idx/Low.java"), new File(srcDir, "test/idx/High.java"));
+            String classPath = new File(ServiceIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    + File.pathSeparator
+                    + new File(Priority.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-d", classesDir.getAbsolutePath(), "-classpath", classPath,
+                            "-A" + ServiceIndexProcessor.CLASS_OPTION + "=test.idx.GeneratedIndex"),
+                    null, sources);
+            task.setProcessors(Collections.singletonList(new ServiceIndexProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+    }
+
+    private static void writeFile(File file, String content) throws Exception {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void generatesIndex() throws Exception {
+        assertThat(new File(classesDir, "test/idx/GeneratedIndex.class")).exists();
+        assertThat(new String(Files.readAllBytes(new File(classesDir,
+                "META-INF/services/" + ServiceIndex.class.getName()).toPath()), StandardCharsets.UTF_8).trim())
+                .isEqualTo("test.idx.GeneratedIndex");
+        try(URLClassLoader cl = new URLClassLoader(new URL[]{classesDir.toURI().toURL()}, getClass().getClassLoader())){
+            ServiceIndex index = (ServiceIndex) cl.loadClass("test.idx.GeneratedIndex").newInstance();
+            assertThat(index.getServiceTypes()).containsExactly("java.lang.Runnable");
+            List<ServiceIndex.Entry> entries = index.getEntries("java.lang.Runnable");
+            assertThat(entries).hasSize(2);
+            assertThat(entries.get(0).getClassName()).isEqualTo("test.idx.Low");
+            assertThat(entries.get(0).getPriority()).isEqualTo(5);
+            assertThat(entries.get(1).getPriority()).isEqualTo(10);
+            assertThat(entries.get(0).getFactory()).isNotNull();
+            assertThat(entries.get(0).getFactory().get().getClass().getName()).isEqualTo("test.idx.Low");
+            assertThat(index.getEntries("java.lang.Object")).isEmpty();
+        }
+    }
+
+    @Test
+    public void serviceContext_UsesIndex() throws Exception {
+        try(URLClassLoader cl = new URLClassLoader(new URL[]{classesDir.toURI().toURL()}, getClass().getClassLoader())){
+            DefaultServiceContext serviceContext = new DefaultServiceContext();
+            serviceContext.init(cl);
+            List<Runnable> services = serviceContext.getServices(Runnable.class);
+            assertThat(services).hasSize(2);
+            assertThat(services.get(0).getClass().getName()).isEqualTo("test.idx.High");
+            assertThat(services.get(1).getClass().getName()).isEqualTo("test.idx.Low");
+            assertThat(services.get(0).getClass().getField("serviceLoader").getBoolean(null)).isFalse();
+        }
+    }
+
+    @Test
+    public void serviceContext_FallsBackIfNotIndexed() throws Exception {
+        File otherDir = folder.newFolder("other");
+        writeFile(new File(otherDir, "META-INF/services/java.lang.Runnable"), "test.idx.Low\n");
+        try(URLClassLoader cl = new URLClassLoader(new URL[]{classesDir.toURI().toURL(), otherDir.toURI().toURL()},
+                getClass().getClassLoader())){
+            DefaultServiceContext serviceContext = new DefaultServiceContext();
+            serviceContext.init(cl);
+            List<Runnable> services = serviceContext.getServices(Runnable.class);
+            assertThat(services).hasSize(2);
+            assertThat(services.get(0).getClass().getName()).isEqualTo("test.idx.High");
+            assertThat(services.get(0).getClass().getField("serviceLoader").getBoolean(null)).isTrue();
+        }
+    }
+}
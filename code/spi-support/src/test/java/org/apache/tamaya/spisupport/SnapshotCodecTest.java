@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spi.ServiceContextManager;
+import org.apache.tamaya.spisupport.propertysource.BuildablePropertySource;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SnapshotCodec}.
+ */
+public class SnapshotCodecTest {
+
+    private static PropertySource createSource(String name, int size) {
+        BuildablePropertySource.Builder builder = BuildablePropertySource.builder().withName(name);
+        for(int i=0;i<size;i++){
+            builder.withProperties(PropertyValue.createValue("key" + i, "value" + i)
+                    .setMeta("source", name).setMeta("ordinal", "100"));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void writeRead_PropertySources() throws Exception {
+        PropertySource ps1 = createSource("ps1", 10);
+        ChangingPropertySource ps2 = new ChangingPropertySource("ps2");
+        ps2.set("a", "ä€é");
+        ps2.set("empty", "");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(SnapshotCodec.Writer writer = new SnapshotCodec.Writer(out)){
+            writer.write(ps1);
+            writer.write(ps2);
+        }
+        try(SnapshotCodec.Reader reader = new SnapshotCodec.Reader(new ByteArrayInputStream(out.toByteArray()))){
+            DefaultPropertySourceSnapshot read1 = reader.read();
+            assertThat(read1.getName()).isEqualTo("ps1");
+            assertThat(read1.getOrdinal()).isEqualTo(PropertySourceComparator.getOrdinal(ps1));
+            assertThat(read1.getProperties()).isEqualTo(ps1.getProperties());
+            assertThat(read1.get("key3").getMeta()).containsEntry("source", "ps1").containsEntry("ordinal", "100");
+            assertThat(read1.get("key3").isImmutable()).isTrue();
+            DefaultPropertySourceSnapshot read2 = reader.read();
+            assertThat(read2.getName()).isEqualTo("ps2");
+            assertThat(read2.get("a").getValue()).isEqualTo("ä€é");
+            assertThat(read2.get("empty").getValue()).isEmpty();
+            assertThat(read2.getKeys()).containsOnly("a", "empty");
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    public void writeRead_ConfigurationSnapshot() throws Exception {
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(),
+                Collections.singletonList(new MockedPropertyFilter()),
+                Arrays.asList(createSource("low", 5), BuildablePropertySource.builder().withName("high")
+                        .withOrdinal(1000).withSimpleProperty("key1", "override").build()),
+                Collections.emptyMap(), new DefaultMetaDataProvider());
+        DefaultConfigurationSnapshot snapshot = new DefaultConfigurationSnapshot(
+                new DefaultConfiguration(context), false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotCodec.writeSnapshot(snapshot, out);
+        DefaultConfigurationSnapshot read = SnapshotCodec.readSnapshot(
+                new ByteArrayInputStream(out.toByteArray()), context);
+        assertThat(read.getId()).isEqualTo(snapshot.getId());
+        assertThat(read.getTimestamp()).isEqualTo(snapshot.getTimestamp());
+        assertThat(read.isFlat()).isFalse();
+        assertThat(read.get("key1")).isEqualTo("override");
+        assertThat(read.getProperties()).isEqualTo(snapshot.getProperties());
+        assertThat(read.getContext().getPropertySources()).hasSize(2);
+    }
+
+    @Test
+    public void readSnapshot_DoesNotReadBeyondSnapshot() throws Exception {
+        DefaultConfigurationContext context = new DefaultConfigurationContext(
+                ServiceContextManager.getServiceContext(), Collections.emptyList(),
+                Collections.singletonList(createSource("ps", 3)), Collections.emptyMap(),
+                new DefaultMetaDataProvider());
+        DefaultConfigurationSnapshot snapshot = new DefaultConfigurationSnapshot(
+                new DefaultConfiguration(context), false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotCodec.writeSnapshot(snapshot, out);
+        out.write(42);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        DefaultConfigurationSnapshot read = SnapshotCodec.readSnapshot(in, context);
+        assertThat(read.getProperties()).isEqualTo(snapshot.getProperties());
+        assertThat(in.read()).isEqualTo(42);
+        assertThat(in.read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void write_SmallerThanJavaSerialization() throws Exception {
+        DefaultPropertySourceSnapshot snapshot = DefaultPropertySourceSnapshot.of(createSource("ps", 1000));
+        ByteArrayOutputStream javaOut = new ByteArrayOutputStream();
+        try(ObjectOutputStream oos = new ObjectOutputStream(javaOut)){
+            oos.writeObject(snapshot);
+        }
+        ByteArrayOutputStream codecOut = new ByteArrayOutputStream();
+        try(SnapshotCodec.Writer writer = new SnapshotCodec.Writer(codecOut)){
+            writer.write(snapshot);
+        }
+        assertThat(codecOut.size()).isLessThan(javaOut.size() / 2);
+    }
+
+    @Test
+    public void read_InvalidStream() {
+        assertThatThrownBy(() -> new SnapshotCodec.Reader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> SnapshotCodec.readSnapshot(new ByteArrayInputStream(new byte[]{'T', 'S', 'N', 'P'}),
+                new MockedConfigurationContext())).isInstanceOf(EOFException.class);
+    }
+}
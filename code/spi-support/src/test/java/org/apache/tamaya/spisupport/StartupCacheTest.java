@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport;
+
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValue;
+import org.apache.tamaya.spisupport.propertysource.JavaConfigurationPropertySource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests for {@link StartupCache}.
+ */
+public class StartupCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheDir;
+    private File classesDir;
+    private URLClassLoader classLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = folder.newFolder("cache");
+        classesDir = folder.newFolder("classes");
+        new File(classesDir, "META-INF/services").mkdirs();
+        writeFile("META-INF/javaconfiguration.properties", "a=1\nb=2\n");
+        classLoader = new URLClassLoader(new URL[]{classesDir.toURI().toURL()}, getClass().getClassLoader());
+        System.setProperty("tamaya.startup.cache", cacheDir.getAbsolutePath());
+        StartupCache.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty("tamaya.startup.cache");
+        StartupCache.reset();
+        classLoader.close();
+    }
+
+    private void writeFile(String name, String content) throws Exception {
+        Files.write(new File(classesDir, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void of_Disabled() {
+        System.clearProperty("tamaya.startup.cache");
+        assertThat(StartupCache.of(classLoader)).isNull();
+        assertThat(StartupCache.of(null)).isNull();
+    }
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        StartupCache cache = StartupCache.of(classLoader);
+        assertThat(cache).isNotNull().isSameAs(StartupCache.of(classLoader));
+        assertThat(cache.getServiceClassNames(PropertySource.class)).isNull();
+        cache.putServiceClassNames(PropertySource.class, Arrays.asList("a.B", "c.D"));
+        cache.putConverterTarget("a.Converter", "java.lang.Integer");
+        cache.putPropertySource("ps", PropertyValue.map(Collections.singletonMap("key", "value"), "test"));
+        cache.store();
+        assertThat(cache.getFile()).exists();
+
+        StartupCache.reset();
+        StartupCache loaded = StartupCache.of(classLoader);
+        assertThat(loaded).isNotSameAs(cache);
+        assertThat(loaded.getFile()).isEqualTo(cache.getFile());
+        assertThat(loaded.getServiceClassNames(PropertySource.class)).containsExactly("a.B", "c.D");
+        assertThat(loaded.getConverterTarget("a.Converter")).isEqualTo("java.lang.Integer");
+        Map<String, PropertyValue> props = loaded.getPropertySource("ps");
+        assertThat(props.get("key").getValue()).isEqualTo("value");
+        assertThat(props.get("key").getMeta()).containsEntry("source", "test");
+    }
+
+    @Test
+    public void fingerprint_ChangesWithClasspath() throws Exception {
+        String fingerprint = StartupCache.fingerprint(classLoader);
+        assertThat(fingerprint).isNotNull().isEqualTo(StartupCache.fingerprint(classLoader));
+        writeFile("META-INF/services/org.apache.tamaya.spi.PropertySource", "a.B\n");
+        assertThat(StartupCache.fingerprint(classLoader)).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void store_RemovesOutdatedFiles() throws Exception {
+        StartupCache cache = StartupCache.of(classLoader);
+        cache.putServiceClassNames(PropertySource.class, Collections.singletonList("a.B"));
+        cache.store();
+        writeFile("META-INF/services/org.apache.tamaya.spi.PropertySource", "a.B\n");
+        StartupCache.reset();
+        StartupCache newCache = StartupCache.of(classLoader);
+        assertThat(newCache.getFile()).isNotEqualTo(cache.getFile());
+        assertThat(newCache.getServiceClassNames(PropertySource.class)).isNull();
+        newCache.putServiceClassNames(PropertySource.class, Collections.singletonList("a.B"));
+        newCache.store();
+        assertThat(cache.getFile()).doesNotExist();
+        assertThat(newCache.getFile()).exists();
+    }
+
+    @Test
+    public void store_KeepsFilesOfOtherClasspaths() throws Exception {
+        File otherDir = folder.newFolder("other");
+        try(URLClassLoader otherLoader = new URLClassLoader(new URL[]{otherDir.toURI().toURL()},
+                getClass().getClassLoader())){
+            StartupCache other = StartupCache.of(otherLoader);
+            other.putServiceClassNames(PropertySource.class, Collections.singletonList("x.Y"));
+            other.store();
+            StartupCache cache = StartupCache.of(classLoader);
+            cache.putServiceClassNames(PropertySource.class, Collections.singletonList("a.B"));
+            cache.store();
+            assertThat(other.getFile()).exists();
+            assertThat(cache.getFile()).exists();
+        }
+    }
+
+    @Test
+    public void of_DefaultDirectoryInUserHome() {
+        System.setProperty("tamaya.startup.cache", "true");
+        StartupCache cache = StartupCache.of(classLoader);
+        assertThat(cache.getFile().getParent())
+                .isEqualTo(Paths.get(System.getProperty("user.home"), ".tamaya", "startup-cache"));
+    }
+
+    @Test
+    public void load_IgnoresFilesWritableByOthers() throws Exception {
+        assumeTrue(Files.getFileStore(cacheDir.toPath()).supportsFileAttributeView(PosixFileAttributeView.class));
+        StartupCache cache = StartupCache.of(classLoader);
+        cache.putServiceClassNames(PropertySource.class, Collections.singletonList("a.B"));
+        cache.store();
+        Files.setPosixFilePermissions(cache.getFile(), PosixFilePermissions.fromString("rw-rw-rw-"));
+        StartupCache.reset();
+        assertThat(StartupCache.of(classLoader).getServiceClassNames(PropertySource.class)).isNull();
+        Files.setPosixFilePermissions(cache.getFile(), PosixFilePermissions.fromString("rw-------"));
+        StartupCache.reset();
+        assertThat(StartupCache.of(classLoader).getServiceClassNames(PropertySource.class)).containsExactly("a.B");
+    }
+
+    @Test
+    public void isFingerprinted() {
+        assertThat(StartupCache.isFingerprinted(String.class)).isTrue();
+        assertThat(StartupCache.isFingerprinted(Test.class)).isTrue();
+        // loaded from the test classes directory
+        assertThat(StartupCache.isFingerprinted(StartupCacheTest.class)).isFalse();
+    }
+
+    @Test
+    public void javaConfigurationPropertySource_UsesCache() throws Exception {
+        JavaConfigurationPropertySource ps = new JavaConfigurationPropertySource();
+        ps.init(classLoader);
+        assertThat(ps.get("a").getValue()).isEqualTo("1");
+        StartupCache cache = StartupCache.of(classLoader);
+        assertThat(cache.getPropertySource(ps.getName())).isEqualTo(ps.getProperties());
+
+        // values cached are used instead of the resources
+        cache.putPropertySource(ps.getName(), PropertyValue.map(Collections.singletonMap("a", "cached"), "test"));
+        ps = new JavaConfigurationPropertySource();
+        ps.init(classLoader);
+        assertThat(ps.get("a").getValue()).isEqualTo("cached");
+        assertThat(ps.get("b")).isNull();
+    }
+
+    @Test
+    public void serviceContext_UsesCachedServices() throws Exception {
+        ClassLoader cl = getClass().getClassLoader();
+        StartupCache cache = StartupCache.of(cl);
+        if(cache==null){
+            // classpath of the test class loader cannot be evaluated
+            return;
+        }
+        cache.putServiceClassNames(Runnable.class, Collections.singletonList(CachedService.class.getName()));
+        DefaultServiceContext serviceContext = new DefaultServiceContext();
+        serviceContext.init(cl);
+        List<Runnable> services = serviceContext.getServices(Runnable.class);
+        assertThat(services).hasSize(1);
+        assertThat(services.get(0)).isInstanceOf(CachedService.class);
+    }
+
+    public static final class CachedService implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -19,10 +19,12 @@
 package org.apache.tamaya.spisupport.propertysource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.tamaya.spi.PropertyValue;
@@ -146,6 +148,69 @@ public class EnvironmentPropertySourceTest {
 		assertThat(envPropertySource.isScannable()).isTrue();
 	}
 
+	@Test
+	public void testGet_NormalizedKeysCached() throws Exception {
+		EnvironmentPropertySource localEnvironmentPropertySource = new EnvironmentPropertySource();
+		Map<String, String> env = new HashMap<>();
+		env.put("COM_ACME_SIZE", "upper");
+		env.put("com_acme_name", "lower");
+		env.put("com.acme.id", "dotted");
+		localEnvironmentPropertySource.setPropertiesProvider(new MapSystemPropertiesProvider(env));
+		assertThat(localEnvironmentPropertySource.get("com.acme.size").getValue()).isEqualTo("upper");
+		assertThat(localEnvironmentPropertySource.get("com.acme.size").getKey()).isEqualTo("com.acme.size");
+		assertThat(localEnvironmentPropertySource.get("com.acme.name").getValue()).isEqualTo("lower");
+		assertThat(localEnvironmentPropertySource.get("com.acme.id").getValue()).isEqualTo("dotted");
+		assertThat(localEnvironmentPropertySource.get("COM_ACME_SIZE").getValue()).isEqualTo("upper");
+		assertThat(localEnvironmentPropertySource.get("com.acme.missing")).isNull();
+		assertThat(localEnvironmentPropertySource.get("com.acme.size"))
+				.isSameAs(localEnvironmentPropertySource.get("com.acme.size"));
+		env.put("COM_ACME_MISSING", "added");
+		assertThat(localEnvironmentPropertySource.get("com.acme.missing")).isNull();
+	}
+
+	@Test
+	public void testGet_CachedValuesImmutable() throws Exception {
+		EnvironmentPropertySource localEnvironmentPropertySource = new EnvironmentPropertySource();
+		Map<String, String> env = new HashMap<>();
+		env.put("COM_ACME_SIZE", "upper");
+		localEnvironmentPropertySource.setPropertiesProvider(new MapSystemPropertiesProvider(env));
+		PropertyValue value = localEnvironmentPropertySource.get("com.acme.size");
+		assertThat(value.isImmutable()).isTrue();
+		assertThat(localEnvironmentPropertySource.get("COM_ACME_SIZE").isImmutable()).isTrue();
+		assertThatThrownBy(() -> value.setMeta("changed", "true")).isInstanceOf(IllegalStateException.class);
+		assertThat(localEnvironmentPropertySource.get("com.acme.size").getMeta()).doesNotContainKey("changed");
+	}
+
+	@Test
+	public void testGet_DerivedKeysCachedWithManyVariables() throws Exception {
+		EnvironmentPropertySource localEnvironmentPropertySource = new EnvironmentPropertySource();
+		Map<String, String> env = new HashMap<>();
+		for(int i=0;i<5000;i++){
+			env.put("VAR_" + i, "value" + i);
+		}
+		localEnvironmentPropertySource.setPropertiesProvider(new MapSystemPropertiesProvider(env));
+		assertThat(localEnvironmentPropertySource.get("var.1").getValue()).isEqualTo("value1");
+		assertThat(localEnvironmentPropertySource.get("var.1")).isSameAs(localEnvironmentPropertySource.get("var.1"));
+	}
+
+	private static class MapSystemPropertiesProvider extends EnvironmentPropertySource.SystemPropertiesProvider {
+		private final Map<String, String> env;
+
+		MapSystemPropertiesProvider(Map<String, String> env) {
+			this.env = env;
+		}
+
+		@Override
+		String getenv(String key) {
+			return env.get(key);
+		}
+
+		@Override
+		Map<String, String> getenv() {
+			return env;
+		}
+	}
+
 	private class MockedSystemPropertiesProvider extends EnvironmentPropertySource.SystemPropertiesProvider {
 		@Override
 		String getenv(String key) {
@@ -47,6 +47,20 @@ public class JavaConfigurationProviderTest {
 
     }
     
+    @Test
+    public void getPropertiesIsComputedOnInit() {
+        JavaConfigurationPropertySource propertySource = new JavaConfigurationPropertySource();
+        assertThat(propertySource.getProperties()).isEmpty();
+        assertThat(propertySource.get("confkey1")).isNull();
+        propertySource.init(getClass().getClassLoader());
+        assertThat(propertySource.getProperties()).isSameAs(propertySource.getProperties());
+        assertThatThrownBy(() -> propertySource.getProperties().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(propertySource.get("confkey1")).isSameAs(propertySource.getProperties().get("confkey1"));
+        propertySource.setEnabled(false);
+        assertThat(propertySource.get("confkey1")).isNull();
+    }
+
     @Test
     public void testConstructionPropertiesAndDisabledBehavior() throws IOException {
         JavaConfigurationPropertySource localJavaConfigurationPropertySource = new JavaConfigurationPropertySource();
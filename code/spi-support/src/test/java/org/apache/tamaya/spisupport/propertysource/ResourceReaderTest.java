@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spisupport.propertysource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ResourceReader}.
+ */
+public class ResourceReaderTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws Exception {
+        file = Files.createTempFile("tamaya", ".properties");
+        Files.write(file, Collections.singletonList("a=1"));
+    }
+
+    @After
+    public void deleteFile() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void read_SkipsUnchangedFiles() throws Exception {
+        // an old modification time is trusted
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60000L));
+        ResourceReader reader = new ResourceReader();
+        URL url = file.toUri().toURL();
+        assertThat(reader.read(url)).containsEntry("a", "1");
+        assertThat(reader.read(url)).isNull();
+        Files.write(file, Collections.singletonList("a=2"));
+        assertThat(reader.read(url)).containsEntry("a", "2");
+    }
+
+    @Test
+    public void read_ComparesChecksum() throws Exception {
+        ResourceReader reader = new ResourceReader();
+        URL url = file.toUri().toURL();
+        assertThat(reader.read(url)).containsEntry("a", "1");
+        // same content, but touched
+        Files.write(file, Collections.singletonList("a=1"));
+        assertThat(reader.read(url)).isNull();
+        // same size and, within the timestamp resolution, possibly the same modification time
+        Files.write(file, Collections.singletonList("a=3"));
+        assertThat(reader.read(url)).containsEntry("a", "3");
+    }
+
+    @Test
+    public void read_AfterReset() throws Exception {
+        ResourceReader reader = new ResourceReader();
+        URL url = file.toUri().toURL();
+        assertThat(reader.read(url)).containsEntry("a", "1");
+        reader.reset();
+        assertThat(reader.read(url)).containsEntry("a", "1");
+        assertThat(reader.read(getClass().getResource("/testfile.properties"))).isNotNull().isNotEmpty();
+    }
+}
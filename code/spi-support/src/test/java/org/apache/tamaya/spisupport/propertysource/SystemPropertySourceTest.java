@@ -152,4 +152,49 @@ public class SystemPropertySourceTest {
         }
           assertThat(systemEntries).hasSize(num);
     }
+
+    @Test
+    public void testManualRefresh() throws Exception {
+        SystemPropertySource ps;
+        System.setProperty("tamaya.sysprops.refresh", "manual");
+        try {
+            ps = new SystemPropertySource();
+        } finally {
+            System.clearProperty("tamaya.sysprops.refresh");
+        }
+        System.setProperty("testManualRefresh", "a");
+        try {
+            assertThat(ps.get("testManualRefresh")).isNull();
+            ps.reload();
+            assertThat(ps.get("testManualRefresh").getValue()).isEqualTo("a");
+            System.setProperty("testManualRefresh", "b");
+            assertThat(ps.get("testManualRefresh").getValue()).isEqualTo("a");
+            ps.reload();
+            assertThat(ps.get("testManualRefresh").getValue()).isEqualTo("b");
+        } finally {
+            System.clearProperty("testManualRefresh");
+        }
+    }
+
+    @Test
+    public void testPeriodicRefresh() throws Exception {
+        SystemPropertySource ps;
+        System.setProperty("tamaya.sysprops.refresh", "10");
+        try {
+            ps = new SystemPropertySource("PRE::");
+        } finally {
+            System.clearProperty("tamaya.sysprops.refresh");
+        }
+        assertThat(ps.get("PRE::testPeriodicRefresh")).isNull();
+        System.setProperty("testPeriodicRefresh", "a");
+        try {
+            long end = System.currentTimeMillis() + 5000L;
+            while (ps.get("PRE::testPeriodicRefresh") == null && System.currentTimeMillis() < end) {
+                Thread.sleep(10L);
+            }
+            assertThat(ps.get("PRE::testPeriodicRefresh").getValue()).isEqualTo("a");
+        } finally {
+            System.clearProperty("testPeriodicRefresh");
+        }
+    }
 }